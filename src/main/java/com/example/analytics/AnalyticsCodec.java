@@ -0,0 +1,216 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Customer;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+// Compact binary form of analytics results and partial aggregates, for shipping them between services.
+// Every message starts with a 4-byte header: two magic bytes, the format version and a type tag.
+// The body uses:
+//  - varints for counts and lengths, zigzag varints for signed values
+//  - BigDecimals and strings in the shared VarInts encodings
+//  - UUIDs as their raw 128 bits
+// Decoding reads straight from the ByteBuffer (heap or direct) without copying it, starting at its
+// position and leaving the position just after the message, so several messages can share a buffer.
+public final class AnalyticsCodec {
+
+    private static final byte MAGIC_0 = (byte) 0xA7;
+    private static final byte MAGIC_1 = (byte) 0x1C;
+    private static final byte VERSION = 1;
+
+    public enum Type {
+        STATISTICS(1),
+        CUSTOMER_LIST(2),
+        DATE_REPORT(3),
+        RISK_MAP(4),
+        ACCUMULATOR(5);
+
+        private final byte tag;
+
+        Type(int tag) {
+            this.tag = (byte) tag;
+        }
+
+        static Type of(byte tag) {
+            for (Type type : values()) {
+                if (type.tag == tag) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown message type " + tag);
+        }
+    }
+
+    private AnalyticsCodec() {
+    }
+
+    // Type of the message at the buffer's position, without consuming it
+    public static Type peekType(ByteBuffer buffer) {
+        ByteBuffer header = buffer.duplicate();
+        checkHeader(header);
+        return Type.of(header.get());
+    }
+
+    public static byte[] encode(BigDecimalStatistics statistics) {
+        VarInts.Writer out = header(Type.STATISTICS);
+        // The average is derived, BigDecimalStatistics recomputes it on decode
+        writeStatistics(out, statistics.count(), statistics.sum(), statistics.min(), statistics.max());
+        return out.toByteArray();
+    }
+
+    public static BigDecimalStatistics decodeStatistics(ByteBuffer buffer) {
+        readHeader(buffer, Type.STATISTICS);
+        long count = VarInts.readUnsigned(buffer);
+        return BigDecimalStatistics.of(
+                count, VarInts.readDecimal(buffer), VarInts.readDecimal(buffer), VarInts.readDecimal(buffer));
+    }
+
+    // Top-K customer lists, e.g. topCustomersBySpendInMonth
+    public static byte[] encodeCustomers(List<Customer> customers) {
+        VarInts.Writer out = header(Type.CUSTOMER_LIST);
+        out.writeUnsigned(customers.size());
+        for (Customer customer : customers) {
+            out.writeUnsigned(customer == null ? 0 : 1);
+            if (customer == null) {
+                continue;
+            }
+            out.writeString(customer.id());
+            out.writeString(customer.name());
+            out.writeString(customer.email());
+            out.writeString(customer.tier());
+            out.writeUnsigned(customer.secondaryEmails().size());
+            for (String email : customer.secondaryEmails()) {
+                out.writeString(email);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static List<Customer> decodeCustomers(ByteBuffer buffer) {
+        readHeader(buffer, Type.CUSTOMER_LIST);
+        int size = VarInts.readLength(buffer);
+        List<Customer> customers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (VarInts.readUnsigned(buffer) == 0) {
+                customers.add(null);
+                continue;
+            }
+            String id = VarInts.readString(buffer);
+            String name = VarInts.readString(buffer);
+            String email = VarInts.readString(buffer);
+            String tier = VarInts.readString(buffer);
+            int emailCount = VarInts.readLength(buffer);
+            List<String> secondaryEmails = new ArrayList<>(emailCount);
+            for (int e = 0; e < emailCount; e++) {
+                secondaryEmails.add(VarInts.readString(buffer));
+            }
+            customers.add(new Customer(id, name, email, tier, secondaryEmails));
+        }
+        return customers;
+    }
+
+    // Date reports: days are sorted and written as deltas, so a contiguous range costs one byte per day
+    public static byte[] encodeDateReport(Map<LocalDate, BigDecimal> report) {
+        VarInts.Writer out = header(Type.DATE_REPORT);
+        Map<LocalDate, BigDecimal> sorted = new TreeMap<>(report);
+        out.writeUnsigned(sorted.size());
+        long previousDay = 0;
+        for (Map.Entry<LocalDate, BigDecimal> entry : sorted.entrySet()) {
+            long day = entry.getKey().toEpochDay();
+            out.writeSigned(day - previousDay);
+            previousDay = day;
+            out.writeDecimal(entry.getValue());
+        }
+        return out.toByteArray();
+    }
+
+    // Entries come back in date order
+    public static Map<LocalDate, BigDecimal> decodeDateReport(ByteBuffer buffer) {
+        readHeader(buffer, Type.DATE_REPORT);
+        int size = VarInts.readLength(buffer);
+        Map<LocalDate, BigDecimal> report = new LinkedHashMap<>(Math.max(16, size * 4 / 3 + 1));
+        long day = 0;
+        for (int i = 0; i < size; i++) {
+            day += VarInts.readSigned(buffer);
+            report.put(LocalDate.ofEpochDay(day), VarInts.readDecimal(buffer));
+        }
+        return report;
+    }
+
+    // Risk maps, e.g. calculateComplexRiskScore; entries keep the map's iteration order
+    public static byte[] encodeRiskMap(Map<UUID, BigDecimal> scores) {
+        VarInts.Writer out = header(Type.RISK_MAP);
+        out.writeUnsigned(scores.size());
+        for (Map.Entry<UUID, BigDecimal> entry : scores.entrySet()) {
+            out.writeFixedLong(entry.getKey().getMostSignificantBits());
+            out.writeFixedLong(entry.getKey().getLeastSignificantBits());
+            out.writeDecimal(entry.getValue());
+        }
+        return out.toByteArray();
+    }
+
+    public static Map<UUID, BigDecimal> decodeRiskMap(ByteBuffer buffer) {
+        readHeader(buffer, Type.RISK_MAP);
+        int size = VarInts.readLength(buffer);
+        Map<UUID, BigDecimal> scores = new LinkedHashMap<>(Math.max(16, size * 4 / 3 + 1));
+        for (int i = 0; i < size; i++) {
+            UUID id = new UUID(VarInts.readFixedLong(buffer), VarInts.readFixedLong(buffer));
+            scores.put(id, VarInts.readDecimal(buffer));
+        }
+        return scores;
+    }
+
+    // Partial aggregates from toBigDecimalAccumulator, to be combined on the receiving side
+    public static byte[] encode(BigDecimalCollectors.BigDecimalAccumulator accumulator) {
+        VarInts.Writer out = header(Type.ACCUMULATOR);
+        writeStatistics(out, accumulator.count(), accumulator.sum(), accumulator.min(), accumulator.max());
+        return out.toByteArray();
+    }
+
+    public static BigDecimalCollectors.BigDecimalAccumulator decodeAccumulator(ByteBuffer buffer) {
+        readHeader(buffer, Type.ACCUMULATOR);
+        long count = VarInts.readUnsigned(buffer);
+        return BigDecimalCollectors.BigDecimalAccumulator.of(
+                count, VarInts.readDecimal(buffer), VarInts.readDecimal(buffer), VarInts.readDecimal(buffer));
+    }
+
+    private static VarInts.Writer header(Type type) {
+        VarInts.Writer out = new VarInts.Writer();
+        out.writeRaw(new byte[] {MAGIC_0, MAGIC_1, VERSION, type.tag});
+        return out;
+    }
+
+    private static void readHeader(ByteBuffer buffer, Type expected) {
+        checkHeader(buffer);
+        Type type = Type.of(buffer.get());
+        if (type != expected) {
+            throw new IllegalArgumentException("Expected a " + expected + " message but found " + type);
+        }
+    }
+
+    private static void checkHeader(ByteBuffer buffer) {
+        if (buffer.get() != MAGIC_0 || buffer.get() != MAGIC_1) {
+            throw new IllegalArgumentException("Not an analytics codec message");
+        }
+        byte version = buffer.get();
+        // Only version 1 exists; anything else (including 0 or negative bytes) is corrupt or from a newer writer
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported codec version " + version);
+        }
+    }
+
+    private static void writeStatistics(VarInts.Writer out, long count, BigDecimal sum, BigDecimal min, BigDecimal max) {
+        out.writeUnsigned(count);
+        out.writeDecimal(sum);
+        out.writeDecimal(min);
+        out.writeDecimal(max);
+    }
+}
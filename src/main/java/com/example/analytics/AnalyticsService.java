@@ -8,6 +8,7 @@ import java.math.BigDecimal;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface AnalyticsService {
@@ -27,6 +28,13 @@ public interface AnalyticsService {
     // of the highest-value order
     Map<String, Object> firstAndLastTransactionOfHighestValueOrder(List<Order> orders);
     
+    // Typed form of the above; equal totals go to the lower order id, so the result is the same
+    // sequentially and in parallel
+    Optional<ValuedOrder> highestValueOrder(List<Order> orders);
+    
+    // The n highest-value orders with their first and last transaction, ranked as highestValueOrder
+    List<ValuedOrder> topValueOrders(List<Order> orders, int n);
+    
     // New method: Get statistics for product prices using custom BigDecimal collector
     BigDecimalStatistics getProductValueStatistics(List<Product> products);
     
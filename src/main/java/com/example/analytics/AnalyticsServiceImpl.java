@@ -9,31 +9,62 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.*;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.AbstractMap;
 import java.util.stream.Stream;
 
 public class AnalyticsServiceImpl implements AnalyticsService {
     
+    // Whether the outer pipeline over the input runs in parallel; small follow-up pipelines
+    // (sorting grouped results, per-order transactions) always stay sequential
+    private final boolean parallel;
+    
+    // ValuedOrder.RANKING on orders whose totals are cached, so no ValuedOrder is built per comparison
+    private static final Comparator<EnrichedOrder> HIGHEST_VALUE_FIRST =
+            ValuedOrder.ranking(EnrichedOrder::totalValue, EnrichedOrder::order);
+    
+    public AnalyticsServiceImpl() {
+        this(false);
+    }
+    
+    public AnalyticsServiceImpl(boolean parallel) {
+        this.parallel = parallel;
+    }
+    
+    public boolean isParallel() {
+        return parallel;
+    }
+    
     @Override
     public List<Customer> topCustomersBySpendInMonth(List<Order> orders, YearMonth yearMonth) {
-        return orders.stream()
-            .filter(order -> order.customer() != null)
-            .filter(order -> YearMonth.from(order.orderDate()).equals(yearMonth))
-            .filter(order -> order.transactions() != null)
-            .flatMap(order -> order.transactions().stream()
-                .filter(transaction -> transaction != null)
-                .map(transaction -> new AbstractMap.SimpleEntry<>(
-                    order.customer(),
-                    transaction.totalValue() != null ? transaction.totalValue() : BigDecimal.ZERO
-                ))
-            )
+        // A store snapshot answers from its daily rollups without touching the orders
+        if (orders instanceof PartitionedOrderStore.Snapshot stored) {
+            return stored.topCustomersBySpendInMonth(yearMonth);
+        }
+        // A snapshot hands us only the month's slice of its time index
+        Stream<EnrichedOrder> candidates = orders instanceof OrderSnapshot snapshot
+                ? stream(snapshot.enrichedBetween(yearMonth.atDay(1), yearMonth.atEndOfMonth()))
+                : enriched(orders);
+        return topCustomersBySpend(candidates, yearMonth);
+    }
+    
+    public List<Customer> topCustomersBySpendInMonth(Iterable<Order> orders, YearMonth yearMonth) {
+        return topCustomersBySpend(enriched(stream(orders)), yearMonth);
+    }
+    
+    public List<Customer> topCustomersBySpendInMonth(Stream<Order> orders, YearMonth yearMonth) {
+        return topCustomersBySpend(enriched(balanced(orders)), yearMonth);
+    }
+    
+    private List<Customer> topCustomersBySpend(Stream<EnrichedOrder> orders, YearMonth yearMonth) {
+        return orders
+            .filter(order -> yearMonth.equals(order.yearMonth()))
+            .filter(order -> order.order().customer() != null)
+            .filter(order -> order.transactionCount() > 0)
             .collect(Collectors.groupingBy(
-                Map.Entry::getKey,
-                Collectors.mapping(
-                    Map.Entry::getValue,
-                    Collectors.reducing(BigDecimal.ZERO, BigDecimal::add)
-                )
+                order -> order.order().customer(),
+                Collectors.reducing(BigDecimal.ZERO, EnrichedOrder::totalValue, BigDecimal::add)
             ))
             .entrySet().stream()
             .sorted((e1, e2) -> e2.getValue().compareTo(e1.getValue()))
@@ -44,8 +75,20 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     
     @Override
     public Map<String, Double> averageTransactionValuePerCategory(List<Order> orders) {
-        return orders.stream()
-                .filter(o -> o.transactions() != null)
+        return averageTransactionValue(stream(orders));
+    }
+    
+    public Map<String, Double> averageTransactionValuePerCategory(Iterable<Order> orders) {
+        return averageTransactionValue(stream(orders));
+    }
+    
+    public Map<String, Double> averageTransactionValuePerCategory(Stream<Order> orders) {
+        return averageTransactionValue(balanced(orders));
+    }
+    
+    private Map<String, Double> averageTransactionValue(Stream<Order> orders) {
+        return orders
+                .filter(o -> o != null && o.transactions() != null)
                 .flatMap(o -> o.transactions().stream())
                 .filter(t -> t != null && t.product() != null && t.product().category() != null)
                 .collect(Collectors.groupingBy(
@@ -69,14 +112,29 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     
     @Override
     public List<Customer> detectSlaBreaches(List<Order> orders) {
-        return orders.stream()
-                .filter(o -> o.customer() != null && o.transactions() != null)
+        if (orders instanceof OrderSnapshot snapshot) {
+            return detectSlaBreachesIndexed(snapshot);
+        }
+        return slaBreaches(enriched(orders));
+    }
+    
+    public List<Customer> detectSlaBreaches(Iterable<Order> orders) {
+        return slaBreaches(enriched(stream(orders)));
+    }
+    
+    public List<Customer> detectSlaBreaches(Stream<Order> orders) {
+        return slaBreaches(enriched(balanced(orders)));
+    }
+    
+    private List<Customer> slaBreaches(Stream<EnrichedOrder> orders) {
+        return orders
+                // Orders without failures can never contribute to a breach
+                .filter(o -> o.order().customer() != null && o.failedCount() > 0)
                 // 1. Group transactions by customer
                 .collect(Collectors.groupingBy(
-                        Order::customer,
+                        o -> o.order().customer(),
                         Collectors.flatMapping(
-                                o -> o.transactions().stream()
-                                        .filter(t -> t != null && "FAILED".equals(t.status())),
+                                o -> failedTransactions(o.order()),
                                 Collectors.toList()
                         )
                 ))
@@ -89,6 +147,28 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                 .toList();
     }
 
+    // Same detection, but each customer's orders come straight from the snapshot's posting list
+    private List<Customer> detectSlaBreachesIndexed(OrderSnapshot snapshot) {
+        return stream(snapshot.customerIds())
+                .map(snapshot::enrichedForCustomer)
+                .map(customerOrders -> new AbstractMap.SimpleEntry<>(
+                        customerOrders.getFirst().order().customer(),
+                        customerOrders.stream()
+                                .filter(o -> o.failedCount() > 0)
+                                .flatMap(o -> failedTransactions(o.order()))
+                                .collect(Collectors.toList())
+                ))
+                .filter(entry -> entry.getValue().size() >= 3)
+                .filter(entry -> hasSlidingWindowBreach(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static Stream<Transaction> failedTransactions(Order order) {
+        return order.transactions().stream()
+                .filter(t -> t != null && "FAILED".equals(t.status()));
+    }
+
     private boolean hasSlidingWindowBreach(List<Transaction> failures) {
         // Sort failures by timestamp
         failures.sort(Comparator.comparing(Transaction::timestamp));
@@ -107,124 +187,176 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
     @Override
     public Map<String, Object> firstAndLastTransactionOfHighestValueOrder(List<Order> orders) {
-        record OrderValue(Order order, BigDecimal totalValue) {}
-
-        return orders.stream()
-                .filter(o -> o.transactions() != null && !o.transactions().isEmpty())
-                .map(o -> {
-                    BigDecimal sum = o.transactions().stream()
-                            .filter(Objects::nonNull)
-                            .map(t -> t.totalValue() != null ? t.totalValue() : BigDecimal.ZERO)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    return new OrderValue(o, sum);
-                })
-                .max(Comparator.comparing(OrderValue::totalValue))
-                .map(ov -> {
-                    var validTs = ov.order().transactions().stream().filter(Objects::nonNull).toList();
-
-                    // SequencedCollection magic
-                    var first = validTs.getFirst();
-                    var last = validTs.getLast();
-
-                    return Map.of(
-                            "orderId", ov.order().id().toString(),
-                            "totalOrderValue", ov.totalValue(),
-                            "firstTransaction", first,
-                            "lastTransaction", last
-                    );
-                })
-                .orElse(Map.of("message", "No valid orders found"));
+        return legacyResult(highestValueOrder(orders));
+    }
+    
+    public Map<String, Object> firstAndLastTransactionOfHighestValueOrder(Iterable<Order> orders) {
+        return legacyResult(highestValueOrder(orders));
+    }
+    
+    public Map<String, Object> firstAndLastTransactionOfHighestValueOrder(Stream<Order> orders) {
+        return legacyResult(highestValueOrder(orders));
+    }
+    
+    private static Map<String, Object> legacyResult(Optional<ValuedOrder> highest) {
+        return highest.map(ValuedOrder::toMap).orElse(Map.of("message", "No valid orders found"));
+    }
+    
+    @Override
+    public Optional<ValuedOrder> highestValueOrder(List<Order> orders) {
+        return highestValue(enriched(orders));
+    }
+    
+    public Optional<ValuedOrder> highestValueOrder(Iterable<Order> orders) {
+        return highestValue(enriched(stream(orders)));
+    }
+    
+    public Optional<ValuedOrder> highestValueOrder(Stream<Order> orders) {
+        return highestValue(enriched(balanced(orders)));
+    }
+    
+    // One reduction over orders that already carry their total and first/last transaction;
+    // on equal rank the earlier order wins, so the result does not depend on how the stream was split
+    private Optional<ValuedOrder> highestValue(Stream<EnrichedOrder> orders) {
+        return orders
+                .filter(o -> o.transactionCount() > 0)
+                .reduce((a, b) -> HIGHEST_VALUE_FIRST.compare(a, b) <= 0 ? a : b)
+                .map(ValuedOrder::of);
+    }
+    
+    @Override
+    public List<ValuedOrder> topValueOrders(List<Order> orders, int n) {
+        return highestValues(enriched(orders), n);
+    }
+    
+    public List<ValuedOrder> topValueOrders(Iterable<Order> orders, int n) {
+        return highestValues(enriched(stream(orders)), n);
+    }
+    
+    public List<ValuedOrder> topValueOrders(Stream<Order> orders, int n) {
+        return highestValues(enriched(balanced(orders)), n);
+    }
+    
+    // Each split keeps a bounded heap of its best n orders, worst at the head, so an order costs O(log n);
+    // the survivors are sorted once at the end. The ranking is a total order on distinct orders, so the
+    // result does not depend on how the stream was split.
+    private List<ValuedOrder> highestValues(Stream<EnrichedOrder> orders, int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must not be negative: " + n);
+        }
+        return orders
+                .filter(o -> o.transactionCount() > 0)
+                .collect(Collector.of(
+                    () -> new PriorityQueue<EnrichedOrder>(HIGHEST_VALUE_FIRST.reversed()),
+                    (top, order) -> offerRanked(top, order, n),
+                    (left, right) -> {
+                        right.forEach(order -> offerRanked(left, order, n));
+                        return left;
+                    }
+                ))
+                .stream()
+                .sorted(HIGHEST_VALUE_FIRST)
+                .map(ValuedOrder::of)
+                .toList();
+    }
+    
+    // Keeps at most n orders; a full heap only takes an order ranked strictly above its worst
+    private static void offerRanked(PriorityQueue<EnrichedOrder> top, EnrichedOrder order, int n) {
+        if (top.size() < n) {
+            top.add(order);
+        } else if (n > 0 && HIGHEST_VALUE_FIRST.compare(order, top.peek()) < 0) {
+            top.poll();
+            top.add(order);
+        }
     }
     
     @Override
     public BigDecimalStatistics getProductValueStatistics(List<Product> products) {
-        return products.stream()
+        return stream(products)
                 .collect(BigDecimalCollectors.toBigDecimalStatistics(Product::price));
     }
     
     @Override
     public Map<UUID, BigDecimal> calculateComplexRiskScore(List<Order> orders) {
-        return orders.stream()
-                .filter(order -> order != null)
+        return complexRiskScores(enriched(orders));
+    }
+    
+    public Map<UUID, BigDecimal> calculateComplexRiskScore(Iterable<Order> orders) {
+        return complexRiskScores(enriched(stream(orders)));
+    }
+    
+    public Map<UUID, BigDecimal> calculateComplexRiskScore(Stream<Order> orders) {
+        return complexRiskScores(enriched(balanced(orders)));
+    }
+    
+    private Map<UUID, BigDecimal> complexRiskScores(Stream<EnrichedOrder> orders) {
+        return orders
                 .collect(Collectors.toMap(
-                    Order::id,
-                    order -> {
-                        // Simulate CPU-intensive calculation
-                        BigDecimal riskScore = BigDecimal.ZERO;
-                        // Perform 1000 iterations of complex operations
-                        for (int i = 0; i < 1000; i++) {
-                            // Use various mathematical operations to simulate complexity
-                            BigDecimal temp = BigDecimal.valueOf(Math.sin(order.id().getMostSignificantBits() + i));
-                            temp = temp.multiply(BigDecimal.valueOf(Math.cos(order.id().getLeastSignificantBits() - i)));
-                            temp = temp.pow(2);
-                            riskScore = riskScore.add(temp.abs());
-                        }
-                        // Normalize the score
-                        if (order.transactions() != null) {
-                            int transactionCount = order.transactions().size();
-                            riskScore = riskScore.divide(BigDecimal.valueOf(Math.max(1, transactionCount)), java.math.MathContext.DECIMAL128);
-                        }
-                        return riskScore;
-                    }, (existingValue, newValue) -> existingValue
+                    o -> o.order().id(),
+                    o -> RiskScoringEngine.exactScore(o.order(), o.order().transactions().size()),
+                    (existingValue, newValue) -> existingValue
                 ));
     }
     
     @Override
     public Map<LocalDate, BigDecimal> generateDateRangeReport(List<Order> orders, LocalDate start, LocalDate end) {
+        if (orders instanceof PartitionedOrderStore.Snapshot stored) {
+            return stored.generateDateRangeReport(start, end);
+        }
+        // A snapshot narrows the pass to the requested range via its time index
+        Stream<EnrichedOrder> candidates = orders instanceof OrderSnapshot snapshot
+                ? stream(snapshot.enrichedBetween(start, end))
+                : enriched(orders);
+        return dateRangeReport(candidates, start, end);
+    }
+    
+    public Map<LocalDate, BigDecimal> generateDateRangeReport(Iterable<Order> orders, LocalDate start, LocalDate end) {
+        return dateRangeReport(enriched(stream(orders)), start, end);
+    }
+    
+    public Map<LocalDate, BigDecimal> generateDateRangeReport(Stream<Order> orders, LocalDate start, LocalDate end) {
+        return dateRangeReport(enriched(balanced(orders)), start, end);
+    }
+    
+    private Map<LocalDate, BigDecimal> dateRangeReport(Stream<EnrichedOrder> orders, LocalDate start, LocalDate end) {
+        // One pass over the orders: bucket each order total by its precomputed epoch day
+        long startDay = start.toEpochDay();
+        long endDay = end.toEpochDay();
+        Map<Long, BigDecimal> totalsByDay = orders
+                .filter(o -> o.hasOrderDate() && o.epochDay() >= startDay && o.epochDay() <= endDay)
+                .collect(Collectors.groupingBy(
+                    EnrichedOrder::epochDay,
+                    Collectors.reducing(BigDecimal.ZERO, EnrichedOrder::totalValue, BigDecimal::add)
+                ));
+
         // Use Stream.iterate to generate dates between start and end (inclusive)
         return Stream.iterate(start, date -> !date.isAfter(end), date -> date.plusDays(1))
                 .collect(Collectors.toMap(
                     date -> date,
-                    date -> orders.stream()
-                                .filter(order -> order != null && order.orderDate() != null)
-                                .filter(order -> order.orderDate().toLocalDate().equals(date))
-                                .flatMap(order -> order.transactions() != null ? 
-                                         order.transactions().stream() : Stream.empty())
-                                .filter(transaction -> transaction != null)
-                                .map(transaction -> transaction.totalValue() != null ? 
-                                     transaction.totalValue() : BigDecimal.ZERO)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                    date -> totalsByDay.getOrDefault(date.toEpochDay(), BigDecimal.ZERO)
                 ));
     }
     
     @Override
     public List<Order> getOrdersInPriceRangeSorted(List<Order> orders, BigDecimal min, BigDecimal max) {
-        // First, sort orders by their total price
-        List<Order> sortedOrders = orders.stream()
-                .filter(order -> order != null)
-                .sorted(Comparator.comparing(order -> 
-                    order.transactions() != null ?
-                    order.transactions().stream()
-                            .filter(transaction -> transaction != null)
-                            .map(transaction -> transaction.totalValue() != null ? 
-                                 transaction.totalValue() : BigDecimal.ZERO)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add)
-                    : BigDecimal.ZERO
-                ))
-                .collect(Collectors.toList());
-        
-        // Now use dropWhile and takeWhile
-        return sortedOrders.stream()
-                .dropWhile(order -> {
-                    BigDecimal orderTotal = order.transactions() != null ?
-                            order.transactions().stream()
-                                    .filter(transaction -> transaction != null)
-                                    .map(transaction -> transaction.totalValue() != null ? 
-                                         transaction.totalValue() : BigDecimal.ZERO)
-                                    .reduce(BigDecimal.ZERO, BigDecimal::add)
-                            : BigDecimal.ZERO;
-                    return orderTotal.compareTo(min) < 0;
-                })
-                .takeWhile(order -> {
-                    BigDecimal orderTotal = order.transactions() != null ?
-                            order.transactions().stream()
-                                    .filter(transaction -> transaction != null)
-                                    .map(transaction -> transaction.totalValue() != null ? 
-                                         transaction.totalValue() : BigDecimal.ZERO)
-                                    .reduce(BigDecimal.ZERO, BigDecimal::add)
-                            : BigDecimal.ZERO;
-                    return orderTotal.compareTo(max) <= 0;
-                })
+        return ordersInPriceRange(enriched(orders), min, max);
+    }
+    
+    public List<Order> getOrdersInPriceRangeSorted(Iterable<Order> orders, BigDecimal min, BigDecimal max) {
+        return ordersInPriceRange(enriched(stream(orders)), min, max);
+    }
+    
+    public List<Order> getOrdersInPriceRangeSorted(Stream<Order> orders, BigDecimal min, BigDecimal max) {
+        return ordersInPriceRange(enriched(balanced(orders)), min, max);
+    }
+    
+    private List<Order> ordersInPriceRange(Stream<EnrichedOrder> orders, BigDecimal min, BigDecimal max) {
+        // Each order total is computed once and reused by the sort, dropWhile and takeWhile
+        return orders
+                .sorted(Comparator.comparing(EnrichedOrder::totalValue))
+                .dropWhile(o -> o.totalValue().compareTo(min) < 0)
+                .takeWhile(o -> o.totalValue().compareTo(max) <= 0)
+                .map(EnrichedOrder::order)
                 .collect(Collectors.toList());
     }
     
@@ -248,4 +380,31 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                 .distinct()
                 .collect(Collectors.toList());
     }
+    
+    // Non-null orders paired with their derived values; a snapshot keeps its enriched orders,
+    // so totals are computed once per snapshot rather than once per query
+    private Stream<EnrichedOrder> enriched(List<Order> orders) {
+        return orders instanceof OrderSnapshot snapshot
+                ? stream(snapshot.enriched()).filter(Objects::nonNull)
+                : enriched(stream(orders));
+    }
+    
+    private static Stream<EnrichedOrder> enriched(Stream<Order> orders) {
+        return orders.filter(Objects::nonNull).map(EnrichedOrder::of);
+    }
+    
+    // Both helpers follow the parallel flag the same way. In parallel mode the source is wrapped in a
+    // balanced spliterator, so speedup does not depend on whether the caller handed us an ArrayList, a
+    // LinkedList, some other Iterable or a Stream. Sequential mode keeps the source's own traversal and
+    // runs sequentially even when the caller's stream was parallel.
+    private <T> Stream<T> stream(Iterable<T> source) {
+        if (!parallel && source instanceof Collection<T> collection) {
+            return collection.stream();
+        }
+        return OrderSpliterators.stream(source, parallel);
+    }
+    
+    private <T> Stream<T> balanced(Stream<T> source) {
+        return parallel ? OrderSpliterators.stream(source, true) : source.sequential();
+    }
 }
@@ -4,14 +4,24 @@ import com.example.analytics.records.Customer;
 import com.example.analytics.records.Order;
 import com.example.analytics.records.Product;
 
+import java.io.PrintStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 public class App {
+    // Orders analyzed by a --batch run
+    static final int BATCH_ORDERS = 1000;
+    
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--batch")) {
+            runBatch(System.out);
+            return;
+        }
+        
         System.out.println("High-Frequency E-Commerce Analytics Engine");
         System.out.println("==========================================");
         
@@ -81,6 +91,13 @@ public class App {
             }
         });
         
+        // Typed variant: the three highest-value orders with their first and last transaction
+        System.out.println("\nTesting topValueOrders...");
+        for (ValuedOrder valued : analyticsService.topValueOrders(orders, 3)) {
+            System.out.println(valued.order().id() + ": " + valued.totalValue() +
+                               " (first " + valued.firstTransaction().id() + ", last " + valued.lastTransaction().id() + ")");
+        }
+        
         // Test the new BigDecimalStatistics method
         System.out.println("\nTesting getProductValueStatistics...");
         // Generate some products
@@ -124,6 +141,18 @@ public class App {
         // Compare ArrayList vs LinkedList
         PerformanceTester.benchmarkArrayListVsLinkedList(analyticsService, new DataGenerator());
         
+        // Let the execution planner choose sequential or parallel per query
+        PerformanceTester.benchmarkExecutionPlanner(new DataGenerator());
+        
+        // Compare the BigDecimal risk score with the double-based scoring engine
+        PerformanceTester.benchmarkRiskScoringEngine(analyticsService, new DataGenerator());
+        
+        // Resolve contact emails for a large customer base in one bulk pass
+        PerformanceTester.benchmarkCustomerContacts(analyticsService);
+        
+        // Combine partial aggregates shipped in the compact binary format
+        PerformanceTester.demonstratePartialAggregates();
+        
         // Test the new specialized methods
         System.out.println("\n" + "=".repeat(50));
         System.out.println("TESTING NEW SPECIALIZED METHODS");
@@ -167,4 +196,47 @@ public class App {
             System.out.println("No customer found for testing");
         }
     }
+    
+    // Short batch job: every AnalyticsService method once over a small seeded data set, one summary line
+    // each, no benchmarks. Also the training workload for the AppCDS archive (see the cds profile), so a
+    // method added to the service belongs here too.
+    public static void runBatch(PrintStream out) {
+        List<Order> orders = DataGenerator.generateOrders(BATCH_ORDERS, 42L);
+        AnalyticsService service = new AnalyticsServiceImpl();
+        YearMonth month = YearMonth.from(DataGenerator.SEEDED_BASE_TIME);
+        LocalDate end = DataGenerator.SEEDED_BASE_TIME.toLocalDate();
+        
+        out.println("Orders: " + orders.size());
+        out.println("Top customers in " + month + ": " + service.topCustomersBySpendInMonth(orders, month).stream()
+                .map(Customer::id)
+                .toList());
+        out.println("Categories above threshold: " + service.averageTransactionValuePerCategory(orders).size());
+        out.println("SLA breaches: " + service.detectSlaBreaches(orders).size());
+        out.println("Highest value order: " + service.highestValueOrder(orders)
+                .map(valued -> valued.order().id() + " = " + valued.totalValue())
+                .orElse("none"));
+        out.println("Highest value order (untyped): " + service.firstAndLastTransactionOfHighestValueOrder(orders)
+                .get("orderId"));
+        out.println("Top 5 order values: " + service.topValueOrders(orders, 5).stream()
+                .map(ValuedOrder::totalValue)
+                .toList());
+        List<Product> products = orders.stream()
+                .flatMap(order -> order.transactions().stream())
+                .filter(transaction -> transaction != null && transaction.product() != null)
+                .map(transaction -> transaction.product())
+                .distinct()
+                .toList();
+        out.println("Product price average: " + service.getProductValueStatistics(products).average());
+        out.println("Risk scores: " + service.calculateComplexRiskScore(orders.subList(0, 50)).size());
+        out.println("Last 7 days total: " + service.generateDateRangeReport(orders, end.minusDays(6), end).values().stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        out.println("Orders between 100 and 500: " + service.getOrdersInPriceRangeSorted(orders,
+                new BigDecimal("100.00"), new BigDecimal("500.00")).size());
+        out.println("Customer emails: " + orders.stream()
+                .map(Order::customer)
+                .filter(customer -> customer != null)
+                .distinct()
+                .mapToInt(customer -> service.getCustomerEmails(customer).size())
+                .sum());
+    }
 }
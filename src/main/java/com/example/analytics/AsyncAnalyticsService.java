@@ -0,0 +1,46 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Customer;
+import com.example.analytics.records.Order;
+import com.example.analytics.records.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+// Non-blocking companion to AnalyticsService.
+// Aggregates complete a CompletableFuture; large result sets are published element by element
+// through a Flow.Publisher that only produces what subscribers request and stops on cancel.
+public interface AsyncAnalyticsService {
+    
+    CompletableFuture<List<Customer>> topCustomersBySpendInMonth(List<Order> orders, YearMonth yearMonth);
+    
+    CompletableFuture<Map<String, Double>> averageTransactionValuePerCategory(List<Order> orders);
+    
+    CompletableFuture<List<Customer>> detectSlaBreaches(List<Order> orders);
+    
+    CompletableFuture<Map<String, Object>> firstAndLastTransactionOfHighestValueOrder(List<Order> orders);
+    
+    CompletableFuture<Optional<ValuedOrder>> highestValueOrder(List<Order> orders);
+    
+    CompletableFuture<List<ValuedOrder>> topValueOrders(List<Order> orders, int n);
+    
+    CompletableFuture<BigDecimalStatistics> getProductValueStatistics(List<Product> products);
+    
+    // One entry per distinct order id, in input order; scores are computed only as subscribers ask for them,
+    // always with the exact BigDecimal computation of AnalyticsService.calculateComplexRiskScore
+    Flow.Publisher<Map.Entry<UUID, BigDecimal>> calculateComplexRiskScore(List<Order> orders);
+    
+    CompletableFuture<Map<LocalDate, BigDecimal>> generateDateRangeReport(List<Order> orders, LocalDate start, LocalDate end);
+    
+    // Orders are emitted in ascending total order as subscribers request them
+    Flow.Publisher<Order> getOrdersInPriceRangeSorted(List<Order> orders, BigDecimal min, BigDecimal max);
+    
+    CompletableFuture<List<String>> getCustomerEmails(Customer customer);
+}
@@ -0,0 +1,172 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Customer;
+import com.example.analytics.records.Order;
+import com.example.analytics.records.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongSupplier;
+
+// AsyncAnalyticsService on top of a blocking AnalyticsService.
+// Aggregates run on the executor. Publishers compute lazily: risk scores are computed by the delegate in
+// batches sized by outstanding demand, and the price-range query sorts once when first requested and then
+// emits in order. Cancelling a CompletableFuture completes it but cannot interrupt a query already running.
+public class AsyncAnalyticsServiceImpl implements AsyncAnalyticsService {
+    
+    // Upper bound on the orders scored per delegate call, which bounds how long cancel() can take to act
+    private static final int MAX_RISK_BATCH = 1024;
+    
+    private final AnalyticsService delegate;
+    private final Executor executor;
+    
+    public AsyncAnalyticsServiceImpl() {
+        this(new AnalyticsServiceImpl(), ForkJoinPool.commonPool());
+    }
+    
+    public AsyncAnalyticsServiceImpl(AnalyticsService delegate, Executor executor) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate cannot be null");
+        this.executor = Objects.requireNonNull(executor, "executor cannot be null");
+    }
+    
+    @Override
+    public CompletableFuture<List<Customer>> topCustomersBySpendInMonth(List<Order> orders, YearMonth yearMonth) {
+        return CompletableFuture.supplyAsync(() -> delegate.topCustomersBySpendInMonth(orders, yearMonth), executor);
+    }
+    
+    @Override
+    public CompletableFuture<Map<String, Double>> averageTransactionValuePerCategory(List<Order> orders) {
+        return CompletableFuture.supplyAsync(() -> delegate.averageTransactionValuePerCategory(orders), executor);
+    }
+    
+    @Override
+    public CompletableFuture<List<Customer>> detectSlaBreaches(List<Order> orders) {
+        return CompletableFuture.supplyAsync(() -> delegate.detectSlaBreaches(orders), executor);
+    }
+    
+    @Override
+    public CompletableFuture<Map<String, Object>> firstAndLastTransactionOfHighestValueOrder(List<Order> orders) {
+        return CompletableFuture.supplyAsync(() -> delegate.firstAndLastTransactionOfHighestValueOrder(orders), executor);
+    }
+    
+    @Override
+    public CompletableFuture<Optional<ValuedOrder>> highestValueOrder(List<Order> orders) {
+        return CompletableFuture.supplyAsync(() -> delegate.highestValueOrder(orders), executor);
+    }
+    
+    @Override
+    public CompletableFuture<List<ValuedOrder>> topValueOrders(List<Order> orders, int n) {
+        return CompletableFuture.supplyAsync(() -> delegate.topValueOrders(orders, n), executor);
+    }
+    
+    @Override
+    public CompletableFuture<BigDecimalStatistics> getProductValueStatistics(List<Product> products) {
+        return CompletableFuture.supplyAsync(() -> delegate.getProductValueStatistics(products), executor);
+    }
+    
+    @Override
+    public Flow.Publisher<Map.Entry<UUID, BigDecimal>> calculateComplexRiskScore(List<Order> orders) {
+        return new IteratorPublisher<>(demand -> new RiskScoreBatches(orders.iterator(), demand), executor);
+    }
+    
+    @Override
+    public CompletableFuture<Map<LocalDate, BigDecimal>> generateDateRangeReport(List<Order> orders, LocalDate start, LocalDate end) {
+        return CompletableFuture.supplyAsync(() -> delegate.generateDateRangeReport(orders, start, end), executor);
+    }
+    
+    @Override
+    public Flow.Publisher<Order> getOrdersInPriceRangeSorted(List<Order> orders, BigDecimal min, BigDecimal max) {
+        return IteratorPublisher.ofList(() -> delegate.getOrdersInPriceRangeSorted(orders, min, max), executor);
+    }
+    
+    @Override
+    public CompletableFuture<List<String>> getCustomerEmails(Customer customer) {
+        return CompletableFuture.supplyAsync(() -> delegate.getCustomerEmails(customer), executor);
+    }
+    
+    // Scores the orders in batches through the delegate, so a parallel or planned delegate scores each
+    // batch in parallel. A batch is as large as the subscriber's outstanding demand (capped), so nothing
+    // is scored ahead of what was requested. Scores always come from the delegate's exact BigDecimal
+    // computation; duplicate ids keep their first score, as in the blocking version.
+    // Skipping null and duplicate orders is cheap, so the end of the input is known before scoring
+    // and the publisher completes right after the last score.
+    private final class RiskScoreBatches implements Iterator<Map.Entry<UUID, BigDecimal>>, IteratorPublisher.Exhaustible {
+        private final Iterator<Order> orders;
+        private final LongSupplier demand;
+        private final Set<UUID> seen = new HashSet<>();
+        private final Deque<Map.Entry<UUID, BigDecimal>> scored = new ArrayDeque<>();
+        // Next distinct order to score, or null when not looked ahead yet
+        private Order pending;
+        
+        RiskScoreBatches(Iterator<Order> orders, LongSupplier demand) {
+            this.orders = orders;
+            this.demand = demand;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (scored.isEmpty()) {
+                scoreNextBatch();
+            }
+            return !scored.isEmpty();
+        }
+        
+        @Override
+        public Map.Entry<UUID, BigDecimal> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return scored.removeFirst();
+        }
+        
+        @Override
+        public boolean isExhausted() {
+            return scored.isEmpty() && !advance();
+        }
+        
+        // Moves pending to the next distinct non-null order; false when there is none left
+        private boolean advance() {
+            while (pending == null && orders.hasNext()) {
+                Order order = orders.next();
+                if (order != null && seen.add(order.id())) {
+                    pending = order;
+                }
+            }
+            return pending != null;
+        }
+        
+        private void scoreNextBatch() {
+            int size = (int) Math.min(MAX_RISK_BATCH, Math.max(1, demand.getAsLong()));
+            List<Order> batch = new ArrayList<>(size);
+            while (batch.size() < size && advance()) {
+                batch.add(pending);
+                pending = null;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            Map<UUID, BigDecimal> scores = delegate.calculateComplexRiskScore(batch);
+            for (Order order : batch) {
+                scored.addLast(new AbstractMap.SimpleImmutableEntry<>(order.id(), scores.get(order.id())));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.analytics;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+// Spliterator for sources that cannot split themselves: iterators, readers, LinkedList and other
+// sequential or unknown-size sources.
+// Each trySplit() buffers the next fixed-size batch into an array and hands it off as an
+// array-backed, fully splittable spliterator, so every forked task gets the same amount of work.
+// (The JDK's iterator spliterator grows its batches arithmetically, which leaves the first tasks
+// with little work and the last ones with most of it.)
+public final class BatchingSpliterator<T> implements Spliterator<T> {
+
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final Spliterator<? extends T> source;
+    private final int batchSize;
+    private long estimatedSize;
+
+    public BatchingSpliterator(Spliterator<? extends T> source, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.source = Objects.requireNonNull(source, "source cannot be null");
+        this.batchSize = batchSize;
+        this.estimatedSize = source.estimateSize();
+    }
+
+    public BatchingSpliterator(Iterator<? extends T> iterator, long sizeIfKnown, int batchSize) {
+        this(sizeIfKnown < 0
+                ? Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED)
+                : Spliterators.spliterator(iterator, sizeIfKnown, Spliterator.ORDERED), batchSize);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (source.tryAdvance(action)) {
+            consumed(1);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        source.forEachRemaining(action);
+        estimatedSize = 0;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        // Reading ahead is pointless when the remainder would fit in a single batch anyway
+        if (estimatedSize <= batchSize && estimatedSize != Long.MAX_VALUE) {
+            return null;
+        }
+        Object[] batch = new Object[batchSize];
+        int[] count = {0};
+        while (count[0] < batchSize && source.tryAdvance(element -> batch[count[0]++] = element)) {
+            // keep filling the batch
+        }
+        if (count[0] == 0) {
+            return null;
+        }
+        consumed(count[0]);
+        return Spliterators.spliterator(batch, 0, count[0], characteristics() | Spliterator.SIZED);
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+        // The prefix is split off in encounter order, so ORDERED survives; SUBSIZED never holds for the remainder
+        return source.characteristics() & (Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE
+                | Spliterator.CONCURRENT | Spliterator.DISTINCT);
+    }
+
+    private void consumed(long count) {
+        if (estimatedSize != Long.MAX_VALUE) {
+            estimatedSize = Math.max(0, estimatedSize - count);
+        }
+    }
+}
@@ -12,15 +12,43 @@ import java.util.stream.Collector;
 
 public class BigDecimalCollectors {
     
-    // Private accumulator class
-    private static class BigDecimalAccumulator {
+    // Accumulator class, public as the partial aggregate of toBigDecimalStatistics: services each collect
+    // their share with toBigDecimalAccumulator, ship it with AnalyticsCodec and combine on the receiving side.
+    // Mutable and not thread-safe, like DoubleSummaryStatistics.
+    public static final class BigDecimalAccumulator {
         private long count = 0L;
         private BigDecimal sum = BigDecimal.ZERO;
         private BigDecimal min = null;
         private BigDecimal max = null;
         
+        // Restore a partial aggregate from its components
+        public static BigDecimalAccumulator of(long count, BigDecimal sum, BigDecimal min, BigDecimal max) {
+            BigDecimalAccumulator accumulator = new BigDecimalAccumulator();
+            accumulator.count = count;
+            accumulator.sum = sum;
+            accumulator.min = min;
+            accumulator.max = max;
+            return accumulator;
+        }
+        
+        public long count() {
+            return count;
+        }
+        
+        public BigDecimal sum() {
+            return sum;
+        }
+        
+        public BigDecimal min() {
+            return min;
+        }
+        
+        public BigDecimal max() {
+            return max;
+        }
+        
         // Add a value to the accumulator
-        void accept(BigDecimal value) {
+        public void accept(BigDecimal value) {
             if (value == null) {
                 return;
             }
@@ -35,8 +63,8 @@ public class BigDecimalCollectors {
             }
         }
         
-        // Combine two accumulators
-        BigDecimalAccumulator combine(BigDecimalAccumulator other) {
+        // Combine two accumulators; neither is modified, the result may be one of them
+        public BigDecimalAccumulator combine(BigDecimalAccumulator other) {
             if (other.count == 0) {
                 return this;
             }
@@ -70,7 +98,7 @@ public class BigDecimalCollectors {
         }
         
         // Finish to create BigDecimalStatistics
-        BigDecimalStatistics finish() {
+        public BigDecimalStatistics finish() {
             if (count == 0) {
                 return BigDecimalStatistics.NEUTRAL;
             }
@@ -78,6 +106,15 @@ public class BigDecimalCollectors {
         }
     }
     
+    // Partial aggregate, to be combined with other partial aggregates before finishing
+    public static <T> Collector<T, ?, BigDecimalAccumulator> toBigDecimalAccumulator(
+            Function<? super T, BigDecimal> mapper) {
+        return Collector.of(
+                BigDecimalAccumulator::new,
+                (acc, element) -> acc.accept(mapper.apply(element)),
+                BigDecimalAccumulator::combine);
+    }
+    
     // Public static method to create the collector
     public static <T> Collector<T, ?, BigDecimalStatistics> toBigDecimalStatistics(
             Function<? super T, BigDecimal> mapper) {
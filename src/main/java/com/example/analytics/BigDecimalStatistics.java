@@ -39,4 +39,19 @@ public record BigDecimalStatistics(
     public static BigDecimalStatistics of(long count, BigDecimal sum, BigDecimal min, BigDecimal max) {
         return new BigDecimalStatistics(count, sum, min, max, null);
     }
+    
+    // Statistics of both underlying value sets combined; min and max ignore missing sides
+    public BigDecimalStatistics merge(BigDecimalStatistics other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (this.count == 0) {
+            return other;
+        }
+        BigDecimal mergedMin = min == null ? other.min
+                : other.min == null || min.compareTo(other.min) <= 0 ? min : other.min;
+        BigDecimal mergedMax = max == null ? other.max
+                : other.max == null || max.compareTo(other.max) >= 0 ? max : other.max;
+        return of(count + other.count, sum.add(other.sum), mergedMin, mergedMax);
+    }
 }
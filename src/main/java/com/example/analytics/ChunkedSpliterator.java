@@ -0,0 +1,76 @@
+package com.example.analytics;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+// Spliterator over an index range of random-access data (RandomAccess lists, arrays, columnar storage).
+// Splits happen on chunk boundaries and never produce a piece smaller than one chunk, so forked
+// tasks stay balanced and each one walks a contiguous, cache-friendly range.
+public final class ChunkedSpliterator<T> implements Spliterator<T> {
+
+    private final IntFunction<? extends T> elementAt;
+    private final int chunkSize;
+    private final int characteristics;
+    private int index;
+    private final int fence;
+
+    public ChunkedSpliterator(IntFunction<? extends T> elementAt, int origin, int fence, int chunkSize,
+                              int additionalCharacteristics) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        if (origin < 0 || origin > fence) {
+            throw new IllegalArgumentException("Invalid range [" + origin + ", " + fence + ")");
+        }
+        this.elementAt = Objects.requireNonNull(elementAt, "elementAt cannot be null");
+        this.index = origin;
+        this.fence = fence;
+        this.chunkSize = chunkSize;
+        this.characteristics = additionalCharacteristics
+                | Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (index < fence) {
+            action.accept(elementAt.apply(index++));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        int i = index;
+        int end = fence;
+        index = end;
+        for (; i < end; i++) {
+            action.accept(elementAt.apply(i));
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        int chunks = (fence - index) / chunkSize;
+        if (chunks < 2) {
+            return null;
+        }
+        // Hand off the first half, rounded down to whole chunks
+        int mid = index + (chunks / 2) * chunkSize;
+        Spliterator<T> prefix = new ChunkedSpliterator<>(elementAt, index, mid, chunkSize, characteristics);
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Customer;
+import com.example.analytics.records.Order;
+import com.example.analytics.records.Product;
+import com.example.analytics.records.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+// Immutable, compressed columnar form of one day of orders.
+// Each field is stored in its own column:
+//  - order ids as raw 128-bit pairs
+//  - order times as zigzag varint deltas between consecutive orders (nanos of day)
+//  - transaction timestamps as varint second deltas from their order time, plus nanos
+//  - customers, products, statuses and transaction ids as varint references into per-partition dictionaries
+//  - quantities as varints, unit prices in the shared VarInts decimal encoding
+// The day's rollup is computed once at compaction; orders() decodes the columns on demand.
+public final class ColdPartition implements OrderPartition {
+
+    // References are stored +1 so that 0 can mean null
+    private static final int NULL_REF = 0;
+
+    private final LocalDate day;
+    private final int size;
+    private final DailyRollup rollup;
+
+    private final long[] idMostBits;
+    private final long[] idLeastBits;
+    private final byte[] orderTimes;
+    private final byte[] customerRefs;
+    private final byte[] orderStatusRefs;
+    private final byte[] transactionCounts;
+
+    private final byte[] transactionIdRefs;
+    private final byte[] productRefs;
+    private final byte[] quantities;
+    private final byte[] unitPrices;
+    private final byte[] timestamps;
+    private final byte[] transactionStatusRefs;
+
+    private final Customer[] customers;
+    private final Product[] products;
+    private final String[] strings;
+
+    private ColdPartition(LocalDate day, Collection<Order> orders) {
+        this.day = day;
+        this.size = orders.size();
+        this.rollup = DailyRollup.of(day, orders.stream().map(EnrichedOrder::of).toList());
+
+        Dictionary<Customer> customerDictionary = new Dictionary<>();
+        Dictionary<Product> productDictionary = new Dictionary<>();
+        Dictionary<String> stringDictionary = new Dictionary<>();
+
+        idMostBits = new long[size];
+        idLeastBits = new long[size];
+        VarInts.Writer times = new VarInts.Writer();
+        VarInts.Writer customerColumn = new VarInts.Writer();
+        VarInts.Writer orderStatusColumn = new VarInts.Writer();
+        VarInts.Writer countColumn = new VarInts.Writer();
+        VarInts.Writer transactionIdColumn = new VarInts.Writer();
+        VarInts.Writer productColumn = new VarInts.Writer();
+        VarInts.Writer quantityColumn = new VarInts.Writer();
+        VarInts.Writer priceColumn = new VarInts.Writer();
+        VarInts.Writer timestampColumn = new VarInts.Writer();
+        VarInts.Writer transactionStatusColumn = new VarInts.Writer();
+
+        long previousNanoOfDay = 0;
+        int row = 0;
+        for (Order order : orders) {
+            if (!order.orderDate().toLocalDate().equals(day)) {
+                throw new IllegalArgumentException("Order " + order.id() + " does not belong to " + day);
+            }
+            idMostBits[row] = order.id().getMostSignificantBits();
+            idLeastBits[row] = order.id().getLeastSignificantBits();
+            row++;
+
+            long nanoOfDay = order.orderDate().toLocalTime().toNanoOfDay();
+            times.writeSigned(nanoOfDay - previousNanoOfDay);
+            previousNanoOfDay = nanoOfDay;
+            long orderSecond = order.orderDate().toEpochSecond(ZoneOffset.UTC);
+
+            customerColumn.writeUnsigned(customerDictionary.ref(order.customer()));
+            orderStatusColumn.writeUnsigned(stringDictionary.ref(order.status()));
+            countColumn.writeUnsigned(order.transactions().size());
+
+            for (Transaction transaction : order.transactions()) {
+                if (transaction == null) {
+                    transactionStatusColumn.writeUnsigned(NULL_REF);
+                    continue;
+                }
+                transactionStatusColumn.writeUnsigned(stringDictionary.ref(transaction.status()));
+                transactionIdColumn.writeUnsigned(stringDictionary.ref(transaction.id()));
+                productColumn.writeUnsigned(productDictionary.ref(transaction.product()));
+                quantityColumn.writeSigned(transaction.quantity());
+                priceColumn.writeDecimal(transaction.unitPrice());
+
+                LocalDateTime timestamp = transaction.timestamp();
+                if (timestamp == null) {
+                    timestampColumn.writeUnsigned(NULL_REF);
+                } else {
+                    timestampColumn.writeUnsigned(
+                            VarInts.zigZag(timestamp.toEpochSecond(ZoneOffset.UTC) - orderSecond) + 1);
+                    timestampColumn.writeUnsigned(timestamp.getNano());
+                }
+            }
+        }
+
+        orderTimes = times.toByteArray();
+        customerRefs = customerColumn.toByteArray();
+        orderStatusRefs = orderStatusColumn.toByteArray();
+        transactionCounts = countColumn.toByteArray();
+        transactionIdRefs = transactionIdColumn.toByteArray();
+        productRefs = productColumn.toByteArray();
+        quantities = quantityColumn.toByteArray();
+        unitPrices = priceColumn.toByteArray();
+        timestamps = timestampColumn.toByteArray();
+        transactionStatusRefs = transactionStatusColumn.toByteArray();
+
+        customers = customerDictionary.values(Customer[]::new);
+        products = productDictionary.values(Product[]::new);
+        strings = stringDictionary.values(String[]::new);
+    }
+
+    // All orders must have an orderDate on the given day
+    public static ColdPartition compact(LocalDate day, Collection<Order> orders) {
+        return new ColdPartition(day, orders);
+    }
+
+    @Override
+    public LocalDate day() {
+        return day;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public DailyRollup rollup() {
+        return rollup;
+    }
+
+    @Override
+    public List<Order> orders() {
+        VarInts.Reader times = new VarInts.Reader(orderTimes);
+        VarInts.Reader customerColumn = new VarInts.Reader(customerRefs);
+        VarInts.Reader orderStatusColumn = new VarInts.Reader(orderStatusRefs);
+        VarInts.Reader countColumn = new VarInts.Reader(transactionCounts);
+        VarInts.Reader transactionIdColumn = new VarInts.Reader(transactionIdRefs);
+        VarInts.Reader productColumn = new VarInts.Reader(productRefs);
+        VarInts.Reader quantityColumn = new VarInts.Reader(quantities);
+        VarInts.Reader priceColumn = new VarInts.Reader(unitPrices);
+        VarInts.Reader timestampColumn = new VarInts.Reader(timestamps);
+        VarInts.Reader transactionStatusColumn = new VarInts.Reader(transactionStatusRefs);
+
+        List<Order> orders = new ArrayList<>(size);
+        long nanoOfDay = 0;
+        for (int row = 0; row < size; row++) {
+            nanoOfDay += times.readSigned();
+            LocalDateTime orderDate = LocalDateTime.of(day, LocalTime.ofNanoOfDay(nanoOfDay));
+            long orderSecond = orderDate.toEpochSecond(ZoneOffset.UTC);
+            Customer customer = lookup(customers, customerColumn.readInt());
+            String status = lookup(strings, orderStatusColumn.readInt());
+
+            int count = countColumn.readInt();
+            Transaction[] transactions = new Transaction[count];
+            for (int t = 0; t < count; t++) {
+                int statusRef = transactionStatusColumn.readInt();
+                if (statusRef == NULL_REF) {
+                    continue;
+                }
+                String id = lookup(strings, transactionIdColumn.readInt());
+                Product product = lookup(products, productColumn.readInt());
+                int quantity = Math.toIntExact(quantityColumn.readSigned());
+                BigDecimal unitPrice = priceColumn.readDecimal();
+                long secondDelta = timestampColumn.readUnsigned();
+                LocalDateTime timestamp = null;
+                if (secondDelta != NULL_REF) {
+                    long second = orderSecond + VarInts.unZigZag(secondDelta - 1);
+                    timestamp = LocalDateTime.ofEpochSecond(second, timestampColumn.readInt(), ZoneOffset.UTC);
+                }
+                transactions[t] = new Transaction(id, product, quantity, unitPrice, timestamp, lookup(strings, statusRef));
+            }
+
+            orders.add(new Order(
+                new UUID(idMostBits[row], idLeastBits[row]),
+                customer,
+                orderDate,
+                count == 0 ? List.of() : Collections.unmodifiableList(Arrays.asList(transactions)),
+                status
+            ));
+        }
+        return orders;
+    }
+
+    // Bytes held by the encoded columns and id arrays; dictionary entries are shared objects and not included
+    public long encodedBytes() {
+        return 16L * size
+                + orderTimes.length + customerRefs.length + orderStatusRefs.length + transactionCounts.length
+                + transactionIdRefs.length + productRefs.length + quantities.length + unitPrices.length
+                + timestamps.length + transactionStatusRefs.length;
+    }
+
+    public int dictionaryEntries() {
+        return customers.length + products.length + strings.length;
+    }
+
+    // The dictionary entries themselves, for footprint accounting
+    List<Object> dictionaryValues() {
+        List<Object> values = new ArrayList<>(dictionaryEntries());
+        values.addAll(Arrays.asList(customers));
+        values.addAll(Arrays.asList(products));
+        values.addAll(Arrays.asList(strings));
+        return values;
+    }
+
+    private static <T> T lookup(T[] dictionary, int ref) {
+        return ref == NULL_REF ? null : dictionary[ref - 1];
+    }
+
+    // Assigns each distinct value a reference, starting at 1 (0 is null)
+    private static final class Dictionary<T> {
+        private final Map<T, Integer> refs = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+
+        int ref(T value) {
+            if (value == null) {
+                return NULL_REF;
+            }
+            return refs.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size();
+            });
+        }
+
+        T[] values(IntFunction<T[]> arrayFactory) {
+            return values.toArray(arrayFactory.apply(0));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Customer;
+import com.example.analytics.records.Order;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+// Answers the category and monthly top-customer queries from a RollupCube when the cube has the
+// grain the query needs, and from the raw orders through an AnalyticsService otherwise.
+// The cube and the order source must describe the same orders.
+public class CubeQueryService {
+
+    private final RollupCube cube;
+    private final AnalyticsService fallback;
+    private final Supplier<List<Order>> orders;
+
+    public CubeQueryService(RollupCube cube, AnalyticsService fallback, Supplier<List<Order>> orders) {
+        this.cube = Objects.requireNonNull(cube, "cube cannot be null");
+        this.fallback = Objects.requireNonNull(fallback, "fallback cannot be null");
+        this.orders = Objects.requireNonNull(orders, "orders cannot be null");
+    }
+
+    // Every cube has the category grain
+    public Map<String, Double> averageTransactionValuePerCategory() {
+        return cube.averageTransactionValuePerCategory();
+    }
+
+    public List<Customer> topCustomersBySpendInMonth(YearMonth yearMonth) {
+        if (cube.hasCustomerGrain()) {
+            return cube.topCustomersBySpendInMonth(yearMonth);
+        }
+        return fallback.topCustomersBySpendInMonth(orders.get(), yearMonth);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Customer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+// Emails of a whole batch of customers, resolved in one pass for notification fan-out.
+// Each customer's primary and secondary emails are stripped of whitespace, lower-cased and deduplicated,
+// keeping the first occurrence; null and blank entries are dropped. The result is one flat array: the
+// emails of customer i are emails[offsets[i]] .. emails[offsets[i + 1] - 1], in input order.
+// Customers are processed in fixed-size chunks in parallel. Each chunk appends into one scratch
+// buffer reused for all its customers and dedupes with a linear scan (customers have a handful of
+// emails); chunks are then copied into place with a prefix sum over the per-customer counts.
+public final class CustomerContacts {
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private final String[] emails;
+    private final int[] offsets;
+
+    private CustomerContacts(String[] emails, int[] offsets) {
+        this.emails = emails;
+        this.offsets = offsets;
+    }
+
+    public static CustomerContacts resolve(List<Customer> customers) {
+        Customer[] batch = customers.toArray(new Customer[0]);
+        int chunks = (batch.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int[] counts = new int[batch.length];
+        String[][] chunkEmails = new String[chunks][];
+
+        range(chunks).forEach(chunk -> {
+            int from = chunk * CHUNK_SIZE;
+            int to = Math.min(batch.length, from + CHUNK_SIZE);
+            String[] buffer = new String[(to - from) * 2];
+            int length = 0;
+            for (int i = from; i < to; i++) {
+                Customer customer = batch[i];
+                if (customer == null) {
+                    continue;
+                }
+                int start = length;
+                buffer = ensureCapacity(buffer, length + 1 + customer.secondaryEmails().size());
+                length = append(buffer, start, length, customer.email());
+                for (String email : customer.secondaryEmails()) {
+                    length = append(buffer, start, length, email);
+                }
+                counts[i] = length - start;
+            }
+            chunkEmails[chunk] = buffer.length == length ? buffer : Arrays.copyOf(buffer, length);
+        });
+
+        int[] offsets = new int[batch.length + 1];
+        for (int i = 0; i < batch.length; i++) {
+            offsets[i + 1] = offsets[i] + counts[i];
+        }
+        String[] emails = new String[offsets[batch.length]];
+        range(chunks).forEach(chunk -> System.arraycopy(chunkEmails[chunk], 0, emails,
+                offsets[chunk * CHUNK_SIZE], chunkEmails[chunk].length));
+        return new CustomerContacts(emails, offsets);
+    }
+
+    public int customerCount() {
+        return offsets.length - 1;
+    }
+
+    public int emailCount() {
+        return emails.length;
+    }
+
+    // Number of distinct emails of the customer at the given input position
+    public int emailCount(int customer) {
+        return offsets[customer + 1] - offsets[customer];
+    }
+
+    public String email(int customer, int index) {
+        return emails[offsets[customer] + index];
+    }
+
+    // Read-only view, no copy
+    public List<String> emailsOf(int customer) {
+        return Collections.unmodifiableList(Arrays.asList(emails).subList(offsets[customer], offsets[customer + 1]));
+    }
+
+    // The flat arrays themselves, for callers streaming them elsewhere; not to be modified
+    public String[] emails() {
+        return emails;
+    }
+
+    public int[] offsets() {
+        return offsets;
+    }
+
+    // Appends the normalized email unless it is blank or already among buffer[start..length)
+    private static int append(String[] buffer, int start, int length, String email) {
+        if (email == null) {
+            return length;
+        }
+        // strip() and toLowerCase() return the same instance when there is nothing to change
+        String normalized = email.strip().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            return length;
+        }
+        for (int i = start; i < length; i++) {
+            if (buffer[i].equals(normalized)) {
+                return length;
+            }
+        }
+        buffer[length] = normalized;
+        return length + 1;
+    }
+
+    private static String[] ensureCapacity(String[] buffer, int required) {
+        return required <= buffer.length ? buffer : Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+    }
+
+    private static IntStream range(int chunks) {
+        IntStream range = IntStream.range(0, chunks);
+        return chunks > 1 ? range.parallel() : range;
+    }
+}
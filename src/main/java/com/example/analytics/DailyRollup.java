@@ -0,0 +1,38 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Customer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// Pre-aggregated totals of one day of orders, enough to answer the date range report and the
+// monthly top-customer query without touching the orders themselves
+public record DailyRollup(
+    LocalDate day,
+    long orderCount,
+    long transactionCount,
+    BigDecimal totalValue,
+    Map<Customer, BigDecimal> spendByCustomer
+) {
+    public DailyRollup {
+        spendByCustomer = Map.copyOf(spendByCustomer);
+    }
+
+    public static DailyRollup of(LocalDate day, Collection<EnrichedOrder> orders) {
+        long transactions = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        Map<Customer, BigDecimal> spend = new HashMap<>();
+        for (EnrichedOrder order : orders) {
+            transactions += order.transactionCount();
+            total = total.add(order.totalValue());
+            // Same rule as topCustomersBySpendInMonth: only customers with at least one transaction
+            if (order.order().customer() != null && order.transactionCount() > 0) {
+                spend.merge(order.order().customer(), order.totalValue(), BigDecimal::add);
+            }
+        }
+        return new DailyRollup(day, orders.size(), transactions, total, spend);
+    }
+}
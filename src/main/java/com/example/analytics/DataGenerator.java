@@ -6,6 +6,8 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
 
 public class DataGenerator {
     private static final String[] CATEGORIES = {
@@ -17,46 +19,57 @@ public class DataGenerator {
     private static final String[] STATUSES = {"SUCCESS", "FAILED", "PENDING", "CANCELLED"};
     private static final String[] CUSTOMER_TIERS = {"STANDARD", "PREMIUM", "VIP"};
     
+    // Reference time of seeded data sets, so they do not depend on when they are generated
+    public static final LocalDateTime SEEDED_BASE_TIME = LocalDateTime.of(2024, 6, 30, 12, 0);
+    
     public static List<Order> generateOrders(int count) {
+        return generateOrders(count, ThreadLocalRandom.current(), LocalDateTime.now(), UUID::randomUUID);
+    }
+    
+    // Reproducible data set: the same seed and count always give the same orders, ids included
+    public static List<Order> generateOrders(int count, long seed) {
+        RandomGenerator random = new SplittableRandom(seed);
+        return generateOrders(count, random, SEEDED_BASE_TIME, () -> randomUUID(random));
+    }
+    
+    private static List<Order> generateOrders(int count, RandomGenerator random, LocalDateTime now, Supplier<UUID> ids) {
         List<Order> orders = new ArrayList<>();
-        List<Product> products = generateProducts(50);
-        List<Customer> customers = generateCustomers(100);
-        
-        LocalDateTime now = LocalDateTime.now();
+        List<Product> products = generateProducts(50, random);
+        List<Customer> customers = generateCustomers(100, random);
         
         for (int i = 0; i < count; i++) {
             // Randomly decide to create edge cases
-            boolean createEdgeCase = ThreadLocalRandom.current().nextDouble() < 0.05;
+            boolean createEdgeCase = random.nextDouble() < 0.05;
             
-            UUID orderId = UUID.randomUUID();
-            Customer customer = customers.get(ThreadLocalRandom.current().nextInt(customers.size()));
+            UUID orderId = ids.get();
+            Customer customer = customers.get(random.nextInt(customers.size()));
             
             // Sometimes use null customer for edge cases
-            if (createEdgeCase && ThreadLocalRandom.current().nextBoolean()) {
+            if (createEdgeCase && random.nextBoolean()) {
                 customer = null;
             }
             
-            LocalDateTime orderDate = now.minusDays(ThreadLocalRandom.current().nextInt(365));
+            LocalDateTime orderDate = now.minusDays(random.nextInt(365));
             
             // Generate random number of transactions (0-5)
-            int transactionCount = ThreadLocalRandom.current().nextInt(6);
+            int transactionCount = random.nextInt(6);
             List<Transaction> transactions = new ArrayList<>();
             
             for (int j = 0; j < transactionCount; j++) {
-                Product product = products.get(ThreadLocalRandom.current().nextInt(products.size()));
-                int quantity = ThreadLocalRandom.current().nextInt(1, 11);
+                Product product = products.get(random.nextInt(products.size()));
+                int quantity = random.nextInt(1, 11);
                 BigDecimal unitPrice = product.price();
                 
                 // Sometimes use null price for edge cases
-                if (createEdgeCase && ThreadLocalRandom.current().nextBoolean()) {
+                if (createEdgeCase && random.nextBoolean()) {
                     unitPrice = null;
                 }
                 
-                LocalDateTime timestamp = orderDate.plusMinutes(ThreadLocalRandom.current().nextInt(60));
-                String status = STATUSES[ThreadLocalRandom.current().nextInt(STATUSES.length)];
+                LocalDateTime timestamp = orderDate.plusMinutes(random.nextInt(60));
+                String status = STATUSES[random.nextInt(STATUSES.length)];
                 
                 Transaction transaction = new Transaction(
-                    "TXN-" + UUID.randomUUID().toString().substring(0, 8),
+                    "TXN-" + ids.get().toString().substring(0, 8),
                     product,
                     quantity,
                     unitPrice,
@@ -67,16 +80,16 @@ public class DataGenerator {
             }
             
             // Sometimes create empty transaction list for edge cases
-            if (createEdgeCase && ThreadLocalRandom.current().nextBoolean()) {
+            if (createEdgeCase && random.nextBoolean()) {
                 transactions = List.of();
             }
             
             // Sometimes use null transaction list for edge cases
-            if (createEdgeCase && ThreadLocalRandom.current().nextBoolean()) {
+            if (createEdgeCase && random.nextBoolean()) {
                 transactions = null;
             }
             
-            String orderStatus = STATUSES[ThreadLocalRandom.current().nextInt(STATUSES.length)];
+            String orderStatus = STATUSES[random.nextInt(STATUSES.length)];
             
             Order order = new Order(
                 orderId,
@@ -104,6 +117,10 @@ public class DataGenerator {
     }
     
     public static List<Product> generateProducts(int count) {
+        return generateProducts(count, ThreadLocalRandom.current());
+    }
+    
+    private static List<Product> generateProducts(int count, RandomGenerator random) {
         List<Product> products = new ArrayList<>();
         Set<String> usedIds = new HashSet<>();
         
@@ -115,17 +132,21 @@ public class DataGenerator {
             usedIds.add(id);
             
             String name = "Product " + (char) ('A' + (i % 26)) + (i / 26 + 1);
-            String category = CATEGORIES[ThreadLocalRandom.current().nextInt(CATEGORIES.length)];
-            BigDecimal price = BigDecimal.valueOf(ThreadLocalRandom.current().nextDouble(10.0, 1000.0))
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            BigDecimal price = BigDecimal.valueOf(random.nextDouble(10.0, 1000.0))
                 .setScale(2, java.math.RoundingMode.HALF_UP);
-            Integer stockQuantity = ThreadLocalRandom.current().nextInt(0, 1001);
+            Integer stockQuantity = random.nextInt(0, 1001);
             
             products.add(new Product(id, name, category, price, stockQuantity));
         }
         return products;
     }
     
-    private static List<Customer> generateCustomers(int count) {
+    public static List<Customer> generateCustomers(int count) {
+        return generateCustomers(count, ThreadLocalRandom.current());
+    }
+    
+    private static List<Customer> generateCustomers(int count, RandomGenerator random) {
         List<Customer> customers = new ArrayList<>();
         Set<String> usedIds = new HashSet<>();
         
@@ -136,15 +157,15 @@ public class DataGenerator {
             } while (usedIds.contains(id));
             usedIds.add(id);
             
-            String firstName = FIRST_NAMES[ThreadLocalRandom.current().nextInt(FIRST_NAMES.length)];
-            String lastName = LAST_NAMES[ThreadLocalRandom.current().nextInt(LAST_NAMES.length)];
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
             String name = firstName + " " + lastName;
             String email = firstName.toLowerCase() + "." + lastName.toLowerCase() + "@example.com";
-            String tier = CUSTOMER_TIERS[ThreadLocalRandom.current().nextInt(CUSTOMER_TIERS.length)];
+            String tier = CUSTOMER_TIERS[random.nextInt(CUSTOMER_TIERS.length)];
             
             // Generate some random secondary emails (0-2)
             List<String> secondaryEmails = new ArrayList<>();
-            int numSecondary = ThreadLocalRandom.current().nextInt(0, 3);
+            int numSecondary = random.nextInt(0, 3);
             for (int j = 0; j < numSecondary; j++) {
                 secondaryEmails.add("secondary" + j + "." + lastName.toLowerCase() + "@example.com");
             }
@@ -152,4 +173,11 @@ public class DataGenerator {
         }
         return customers;
     }
+    
+    // Version 4 UUID drawn from the given generator
+    private static UUID randomUUID(RandomGenerator random) {
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(mostSigBits, leastSigBits);
+    }
 }
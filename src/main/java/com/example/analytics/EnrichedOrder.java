@@ -0,0 +1,150 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Order;
+import com.example.analytics.records.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Objects;
+
+// Companion to the Order record carrying derived values, since a record cannot hold lazy fields.
+// Date keys are computed up front (they are cheap and used for indexing); the transaction-derived values
+// are computed together in one pass over the transactions the first time any of them is asked for,
+// then cached for the lifetime of this object.
+public final class EnrichedOrder {
+
+    private final Order order;
+    private final LocalDate orderDay;
+    private final YearMonth yearMonth;
+
+    // Racy single-check caching: Totals is immutable, so a thread either sees null and recomputes
+    // the same values, or sees a fully constructed instance
+    private Totals totals;
+
+    private record Totals(
+        BigDecimal totalValue,
+        int transactionCount,
+        int failedCount,
+        Transaction firstTransaction,
+        Transaction lastTransaction,
+        LocalDateTime firstTimestamp,
+        LocalDateTime lastTimestamp
+    ) {
+        static Totals of(Order order) {
+            BigDecimal total = BigDecimal.ZERO;
+            int count = 0;
+            int failed = 0;
+            Transaction first = null;
+            Transaction last = null;
+            LocalDateTime earliest = null;
+            LocalDateTime latest = null;
+
+            for (Transaction transaction : order.transactions()) {
+                if (transaction == null) {
+                    continue;
+                }
+                total = total.add(transaction.totalValue());
+                count++;
+                if ("FAILED".equals(transaction.status())) {
+                    failed++;
+                }
+                if (first == null) {
+                    first = transaction;
+                }
+                last = transaction;
+
+                LocalDateTime timestamp = transaction.timestamp();
+                if (timestamp != null) {
+                    if (earliest == null || timestamp.isBefore(earliest)) {
+                        earliest = timestamp;
+                    }
+                    if (latest == null || timestamp.isAfter(latest)) {
+                        latest = timestamp;
+                    }
+                }
+            }
+            return new Totals(total, count, failed, first, last, earliest, latest);
+        }
+    }
+
+    private EnrichedOrder(Order order) {
+        this.order = order;
+        this.orderDay = order.orderDate() != null ? order.orderDate().toLocalDate() : null;
+        this.yearMonth = orderDay != null ? YearMonth.from(orderDay) : null;
+    }
+
+    public static EnrichedOrder of(Order order) {
+        return new EnrichedOrder(Objects.requireNonNull(order, "order cannot be null"));
+    }
+
+    public Order order() {
+        return order;
+    }
+
+    public boolean hasOrderDate() {
+        return orderDay != null;
+    }
+
+    // Day of orderDate, or null when the order has no date
+    public LocalDate orderDay() {
+        return orderDay;
+    }
+
+    // Epoch day of orderDate; only meaningful when hasOrderDate()
+    public long epochDay() {
+        return orderDay != null ? orderDay.toEpochDay() : Long.MIN_VALUE;
+    }
+
+    // Month of orderDate, or null when the order has no date
+    public YearMonth yearMonth() {
+        return yearMonth;
+    }
+
+    // Sum of the totalValue of all non-null transactions
+    public BigDecimal totalValue() {
+        return totals().totalValue();
+    }
+
+    // Number of non-null transactions
+    public int transactionCount() {
+        return totals().transactionCount();
+    }
+
+    public int failedCount() {
+        return totals().failedCount();
+    }
+
+    // First and last non-null transaction in list order, or null when there are none
+    public Transaction firstTransaction() {
+        return totals().firstTransaction();
+    }
+
+    public Transaction lastTransaction() {
+        return totals().lastTransaction();
+    }
+
+    // Earliest and latest transaction timestamp, or null when there are none
+    public LocalDateTime firstTimestamp() {
+        return totals().firstTimestamp();
+    }
+
+    public LocalDateTime lastTimestamp() {
+        return totals().lastTimestamp();
+    }
+
+    private Totals totals() {
+        Totals t = totals;
+        if (t == null) {
+            t = Totals.of(order);
+            totals = t;
+        }
+        return t;
+    }
+
+    @Override
+    public String toString() {
+        return "EnrichedOrder[" + order.id() + "]";
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.analytics;
+
+// How a query pipeline is executed over its input
+public enum ExecutionMode {
+    // Plain sequential stream over the caller's collection
+    SEQUENTIAL,
+    // Parallel stream over the caller's collection; only chosen when it splits well (SIZED/SUBSIZED, random access)
+    PARALLEL,
+    // Copy the input into an array-backed list first, then run in parallel over the copy
+    COPY_TO_ARRAY_PARALLEL
+}
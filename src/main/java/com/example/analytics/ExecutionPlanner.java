@@ -0,0 +1,180 @@
+package com.example.analytics;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Chooses sequential, parallel or copy-then-parallel execution per query.
+// Inputs to a decision:
+//  - input size
+//  - whether the source splits well (SIZED/SUBSIZED spliterator over a RandomAccess collection)
+//  - cost per element learned from previous runs of the same query (exponential moving average);
+//    parallel costs are kept per power-of-four size class so the fixed fork/join overhead paid
+//    on small inputs is not spread over large ones
+//  - saturation of the fork/join pool the parallel streams run in
+// Callers report the observed latency of every plan through record(), which feeds the cost model
+// and a bounded log of recent decisions.
+public class ExecutionPlanner {
+
+    // Below this estimated sequential cost the fork/join overhead is not worth paying
+    private static final long PARALLEL_THRESHOLD_NANOS = 1_000_000L;
+    // Cost assumed for a query that has never run sequentially
+    private static final double DEFAULT_NANOS_PER_ELEMENT = 500.0;
+    // Weight of the newest observation in the moving average
+    private static final double SMOOTHING = 0.3;
+    private static final double FAST_SMOOTHING = 0.7;
+    // Observations of a mode at a size class needed before they are trusted over the heuristic
+    private static final int MIN_SAMPLES = 3;
+    // Every n-th plan of a query re-measures the mode that is currently losing
+    private static final int EXPLORE_EVERY = 16;
+    private static final int DECISION_LOG_SIZE = 256;
+    private static final int ALL_SIZES = -1;
+
+    public record Plan(String query, ExecutionMode mode, int size, String reason) {}
+
+    public record Decision(Plan plan, long elapsedNanos) {
+        public double nanosPerElement() {
+            return (double) elapsedNanos / Math.max(1, plan.size());
+        }
+    }
+
+    // Moving average of the cost per element of one query in one mode
+    private static final class CostEstimate {
+        private double nanosPerElement;
+        private long samples;
+
+        synchronized void observe(double value) {
+            // Cold JIT runs and GC pauses only ever inflate a measurement, so lower observations weigh more
+            double weight = value < nanosPerElement ? FAST_SMOOTHING : SMOOTHING;
+            nanosPerElement = samples == 0 ? value : weight * value + (1 - weight) * nanosPerElement;
+            samples++;
+        }
+
+        synchronized double nanosPerElement() {
+            return nanosPerElement;
+        }
+
+        synchronized long samples() {
+            return samples;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final Map<String, CostEstimate> costs = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> planCounts = new ConcurrentHashMap<>();
+    private final Deque<Decision> decisions = new ArrayDeque<>();
+
+    public ExecutionPlanner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ExecutionPlanner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public ForkJoinPool pool() {
+        return pool;
+    }
+
+    public Plan plan(String query, Collection<?> source) {
+        int size = source.size();
+        if (size < 2 || pool.getParallelism() < 2) {
+            return new Plan(query, ExecutionMode.SEQUENTIAL, size, "input or pool too small to split");
+        }
+        if (isSaturated()) {
+            return new Plan(query, ExecutionMode.SEQUENTIAL, size, "fork/join pool saturated");
+        }
+
+        ExecutionMode parallelMode = splitsWell(source)
+                ? ExecutionMode.PARALLEL
+                : ExecutionMode.COPY_TO_ARRAY_PARALLEL;
+
+        // Sequential cost per element hardly depends on input size, so one estimate across all sizes
+        // (quickly calibrated by small runs) serves every size class
+        int sizeClass = sizeClass(size);
+        CostEstimate sequential = costs.get(key(query, ExecutionMode.SEQUENTIAL, ALL_SIZES));
+        double sequentialCost = sequential != null ? sequential.nanosPerElement() : DEFAULT_NANOS_PER_ELEMENT;
+        if (sequentialCost * size < PARALLEL_THRESHOLD_NANOS) {
+            return new Plan(query, ExecutionMode.SEQUENTIAL, size,
+                    "estimated sequential cost below " + PARALLEL_THRESHOLD_NANOS + " ns");
+        }
+
+        CostEstimate parallel = costs.get(key(query, parallelMode, sizeClass));
+        if (parallel == null || parallel.samples() < MIN_SAMPLES) {
+            return new Plan(query, parallelMode, size, "sequential cost above threshold, no parallel history");
+        }
+        if (sequential == null || sequential.samples() < MIN_SAMPLES) {
+            return new Plan(query, ExecutionMode.SEQUENTIAL, size, "calibrating sequential cost");
+        }
+
+        // Every n-th plan runs the currently losing mode so both estimates keep tracking reality
+        long planNumber = planCounts.computeIfAbsent(query, q -> new AtomicLong()).incrementAndGet();
+        boolean explore = planNumber % EXPLORE_EVERY == 0;
+        double parallelCost = parallel.nanosPerElement();
+        if (parallelCost < sequentialCost != explore) {
+            return new Plan(query, parallelMode, size, String.format(
+                    "%s parallel %.1f ns/element vs sequential %.1f ns/element",
+                    explore ? "re-measuring" : "measured", parallelCost, sequentialCost));
+        }
+        return new Plan(query, ExecutionMode.SEQUENTIAL, size, String.format(
+                "%s sequential %.1f ns/element vs parallel %.1f ns/element",
+                explore ? "re-measuring" : "measured", sequentialCost, parallelCost));
+    }
+
+    public void record(Plan plan, long elapsedNanos) {
+        Decision decision = new Decision(plan, elapsedNanos);
+        if (plan.size() > 0) {
+            costs.computeIfAbsent(key(plan.query(), plan.mode(), sizeClass(plan.size())), k -> new CostEstimate())
+                    .observe(decision.nanosPerElement());
+            costs.computeIfAbsent(key(plan.query(), plan.mode(), ALL_SIZES), k -> new CostEstimate())
+                    .observe(decision.nanosPerElement());
+        }
+        synchronized (decisions) {
+            if (decisions.size() == DECISION_LOG_SIZE) {
+                decisions.removeFirst();
+            }
+            decisions.addLast(decision);
+        }
+    }
+
+    // Most recent decisions, oldest first
+    public List<Decision> recentDecisions() {
+        synchronized (decisions) {
+            return List.copyOf(decisions);
+        }
+    }
+
+    // Learned cost per element of a query at the given input size
+    public OptionalDouble nanosPerElement(String query, ExecutionMode mode, int size) {
+        CostEstimate estimate = costs.get(key(query, mode, sizeClass(size)));
+        return estimate == null || estimate.samples() == 0
+                ? OptionalDouble.empty()
+                : OptionalDouble.of(estimate.nanosPerElement());
+    }
+
+    private boolean isSaturated() {
+        return pool.getQueuedSubmissionCount() > 0 || pool.getActiveThreadCount() >= pool.getParallelism();
+    }
+
+    private static boolean splitsWell(Collection<?> source) {
+        return source instanceof RandomAccess
+                && source.spliterator().hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED);
+    }
+
+    // 0 for 1..3 elements, 1 for 4..15, 2 for 16..63, ...
+    private static int sizeClass(int size) {
+        return (31 - Integer.numberOfLeadingZeros(Math.max(1, size))) / 2;
+    }
+
+    private static String key(String query, ExecutionMode mode, int sizeClass) {
+        return query + '/' + mode + '/' + sizeClass;
+    }
+}
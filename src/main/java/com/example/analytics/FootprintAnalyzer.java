@@ -0,0 +1,350 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Customer;
+import com.example.analytics.records.Order;
+import com.example.analytics.records.Product;
+import com.example.analytics.records.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Heap footprint of the order model, for sizing heaps before rollout.
+// Sizes are estimated from the known object layouts of a 64-bit HotSpot JVM with compressed oops and
+// compressed class pointers (12-byte object headers, 16-byte array headers, 4-byte references, 8-byte
+// alignment), so the analysis runs anywhere without an agent. The object graph is walked with an
+// identity set: every object is counted once, under the Order/Transaction/Product/Customer field that
+// first reaches it, so shared objects (products, customers, cached constants, literal statuses) are not
+// double counted. Small cached Integers are JVM-wide constants and count as zero.
+// Lists are sized from their class: ArrayList capacity assumes default growth from empty.
+public class FootprintAnalyzer {
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+
+    private static final long UUID_BYTES = align(OBJECT_HEADER + 2 * 8);
+    private static final long LOCAL_DATE_BYTES = align(OBJECT_HEADER + 4 + 2 + 2);
+    private static final long LOCAL_TIME_BYTES = align(OBJECT_HEADER + 3 + 4);
+    private static final long LOCAL_DATE_TIME_BYTES = align(OBJECT_HEADER + 2 * REFERENCE);
+    private static final long BIG_DECIMAL_BYTES = align(OBJECT_HEADER + 2 * REFERENCE + 2 * 4 + 8);
+    private static final long BIG_INTEGER_BYTES = align(OBJECT_HEADER + REFERENCE + 5 * 4);
+    private static final long STRING_BYTES = align(OBJECT_HEADER + REFERENCE + 4 + 2);
+    private static final long INTEGER_BYTES = align(OBJECT_HEADER + 4);
+
+    // Retained bytes of one model type, split by the field that holds them
+    public record TypeFootprint(String type, long instances, long shallowBytes, Map<String, Long> fieldBytes) {
+        public long retainedBytes() {
+            return shallowBytes + fieldBytes.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    public record Report(int orders, long containerBytes, Map<String, TypeFootprint> types) {
+        public long totalBytes() {
+            return containerBytes + types.values().stream().mapToLong(TypeFootprint::retainedBytes).sum();
+        }
+
+        // Orders and transactions grow with the order count; products and customers are reference data
+        public long bytesPerOrder() {
+            long perOrder = containerBytes + retained("Order") + retained("Transaction");
+            return orders == 0 ? 0 : perOrder / orders;
+        }
+
+        public long referenceDataBytes() {
+            return retained("Product") + retained("Customer");
+        }
+
+        public long projectBytes(long orderCount) {
+            return referenceDataBytes() + bytesPerOrder() * orderCount;
+        }
+
+        private long retained(String type) {
+            TypeFootprint footprint = types.get(type);
+            return footprint == null ? 0 : footprint.retainedBytes();
+        }
+    }
+
+    // Object model vs. the ColdPartition columns of the same (dated) orders
+    public record CompactComparison(int orders, long objectModelBytes, long encodedBytes, long dictionaryBytes) {
+        public long compactBytes() {
+            return encodedBytes + dictionaryBytes;
+        }
+
+        public double ratio() {
+            return compactBytes() == 0 ? 0 : (double) objectModelBytes / compactBytes();
+        }
+    }
+
+    public static Report analyze(List<Order> orders) {
+        Walker walker = new Walker();
+        orders.stream().filter(Objects::nonNull).forEach(walker::order);
+        return new Report(orders.size(), listBytes(orders), walker.report());
+    }
+
+    public static CompactComparison compareWithColdPartitions(List<Order> orders) {
+        List<Order> dated = orders.stream()
+                .filter(order -> order != null && order.orderDate() != null)
+                .toList();
+        Map<LocalDate, List<Order>> byDay = dated.stream()
+                .collect(Collectors.groupingBy(order -> order.orderDate().toLocalDate()));
+
+        long encoded = 0;
+        Walker dictionaries = new Walker();
+        for (Map.Entry<LocalDate, List<Order>> day : byDay.entrySet()) {
+            ColdPartition partition = ColdPartition.compact(day.getKey(), day.getValue());
+            encoded += partition.encodedBytes();
+            partition.dictionaryValues().forEach(dictionaries::dictionaryValue);
+        }
+        return new CompactComparison(dated.size(), analyze(dated).totalBytes(), encoded, dictionaries.total());
+    }
+
+    public static void main(String[] args) {
+        int sampleSize = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long[] projections = args.length > 1
+                ? Arrays.stream(args[1].split(",")).mapToLong(Long::parseLong).toArray()
+                : new long[] {1_000_000L, 10_000_000L, 50_000_000L};
+
+        List<Order> orders = DataGenerator.generateOrders(sampleSize, 42L);
+        Report report = analyze(orders);
+
+        System.out.println("=== Order Model Footprint (" + report.orders() + " generated orders) ===");
+        System.out.println("Estimates for a 64-bit JVM with compressed oops");
+        for (TypeFootprint type : report.types().values()) {
+            System.out.printf("%n%-12s %,10d instances  %,14d bytes retained  (%,d shallow)%n",
+                    type.type(), type.instances(), type.retainedBytes(), type.shallowBytes());
+            type.fieldBytes().forEach((field, bytes) -> System.out.printf("    %-22s %,14d bytes  %6.1f per instance%n",
+                    field, bytes, type.instances() == 0 ? 0.0 : (double) bytes / type.instances()));
+        }
+        System.out.printf("%nList<Order> container %,14d bytes%n", report.containerBytes());
+        System.out.printf("Total                 %,14d bytes (%s)%n", report.totalBytes(), megabytes(report.totalBytes()));
+        System.out.printf("Per order             %,14d bytes, plus %,d bytes of products and customers%n",
+                report.bytesPerOrder(), report.referenceDataBytes());
+
+        System.out.println("\n=== Projected Live Heap ===");
+        for (long projection : projections) {
+            System.out.printf("%,14d orders  %12s live data%n", projection, megabytes(report.projectBytes(projection)));
+        }
+        System.out.println("Live data only: size -Xmx with headroom for the collector and query garbage on top");
+
+        CompactComparison cold = compareWithColdPartitions(orders);
+        System.out.println("\n=== Object Model vs. ColdPartition (" + cold.orders() + " dated orders) ===");
+        System.out.printf("Object model          %12s%n", megabytes(cold.objectModelBytes()));
+        System.out.printf("Cold columns          %12s%n", megabytes(cold.encodedBytes()));
+        System.out.printf("Cold dictionaries     %12s%n", megabytes(cold.dictionaryBytes()));
+        System.out.printf("Compression factor    %12.1fx%n", cold.ratio());
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    static long referenceArrayBytes(int length) {
+        return align(ARRAY_HEADER + (long) REFERENCE * length);
+    }
+
+    static long recordBytes(int referenceComponents) {
+        return align(OBJECT_HEADER + (long) REFERENCE * referenceComponents);
+    }
+
+    // Wrapper plus backing array, by list implementation; elements are not included
+    static long listBytes(List<?> list) {
+        int size = list.size();
+        return switch (list.getClass().getName()) {
+            case "java.util.ArrayList" -> align(OBJECT_HEADER + 3 * 4) + (size == 0 ? 0 : referenceArrayBytes(arrayListCapacity(size)));
+            // List.of(): the empty list is a shared constant, one or two elements live in fields
+            case "java.util.ImmutableCollections$ListN" -> size == 0 ? 0 : align(OBJECT_HEADER + REFERENCE + 1) + referenceArrayBytes(size);
+            case "java.util.ImmutableCollections$List12" -> align(OBJECT_HEADER + 2 * REFERENCE);
+            case "java.util.Arrays$ArrayList" -> align(OBJECT_HEADER + REFERENCE) + referenceArrayBytes(size);
+            // As produced by ColdPartition: unmodifiableList(Arrays.asList(array))
+            case "java.util.Collections$UnmodifiableRandomAccessList", "java.util.Collections$UnmodifiableList" ->
+                    align(OBJECT_HEADER + 2 * REFERENCE) + align(OBJECT_HEADER + REFERENCE) + referenceArrayBytes(size);
+            default -> align(OBJECT_HEADER + 2 * 4) + referenceArrayBytes(size);
+        };
+    }
+
+    // ArrayList grows from 10 by half its capacity
+    private static int arrayListCapacity(int size) {
+        int capacity = 10;
+        while (capacity < size) {
+            capacity += capacity >> 1;
+        }
+        return capacity;
+    }
+
+    // Walks the order graph, counting every object once
+    private static final class Walker {
+        private final Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Map<String, long[]> shallow = new LinkedHashMap<>();
+        private final Map<String, Map<String, Long>> fields = new LinkedHashMap<>();
+
+        Walker() {
+            List.of("Order", "Transaction", "Product", "Customer").forEach(this::type);
+        }
+
+        void order(Order order) {
+            if (!visit("Order", order, 5)) {
+                return;
+            }
+            field("Order", "id (UUID)", uuid(order.id()));
+            field("Order", "orderDate (LocalDateTime)", dateTime(order.orderDate()));
+            field("Order", "status (String)", string(order.status()));
+            field("Order", "transactions (List)", list(order.transactions()));
+            for (Transaction transaction : order.transactions()) {
+                transaction(transaction);
+            }
+            customer(order.customer());
+        }
+
+        void transaction(Transaction transaction) {
+            if (!visit("Transaction", transaction, 6)) {
+                return;
+            }
+            // The product first, so a unit price shared with the product's price is counted there
+            product(transaction.product());
+            field("Transaction", "id (String)", string(transaction.id()));
+            field("Transaction", "quantity (Integer)", integer(transaction.quantity()));
+            field("Transaction", "unitPrice (BigDecimal)", decimal(transaction.unitPrice()));
+            field("Transaction", "timestamp (LocalDateTime)", dateTime(transaction.timestamp()));
+            field("Transaction", "status (String)", string(transaction.status()));
+        }
+
+        void product(Product product) {
+            if (!visit("Product", product, 5)) {
+                return;
+            }
+            field("Product", "id (String)", string(product.id()));
+            field("Product", "name (String)", string(product.name()));
+            field("Product", "category (String)", string(product.category()));
+            field("Product", "price (BigDecimal)", decimal(product.price()));
+            field("Product", "stockQuantity (Integer)", integer(product.stockQuantity()));
+        }
+
+        void customer(Customer customer) {
+            if (!visit("Customer", customer, 5)) {
+                return;
+            }
+            field("Customer", "id (String)", string(customer.id()));
+            field("Customer", "name (String)", string(customer.name()));
+            field("Customer", "email (String)", string(customer.email()));
+            field("Customer", "tier (String)", string(customer.tier()));
+            long secondaryEmails = list(customer.secondaryEmails());
+            for (String email : customer.secondaryEmails()) {
+                secondaryEmails += string(email);
+            }
+            field("Customer", "secondaryEmails (List)", secondaryEmails);
+        }
+
+        void dictionaryValue(Object value) {
+            switch (value) {
+                case Customer customer -> customer(customer);
+                case Product product -> product(product);
+                case String string -> field("String", "dictionary entries", string(string));
+                default -> throw new IllegalArgumentException("Unexpected dictionary value " + value.getClass());
+            }
+        }
+
+        long total() {
+            return report().values().stream().mapToLong(TypeFootprint::retainedBytes).sum();
+        }
+
+        Map<String, TypeFootprint> report() {
+            Map<String, TypeFootprint> report = new LinkedHashMap<>();
+            shallow.forEach((type, counts) ->
+                    report.put(type, new TypeFootprint(type, counts[0], counts[1], Collections.unmodifiableMap(new LinkedHashMap<>(fields.get(type))))));
+            return report;
+        }
+
+        private boolean visit(String type, Object value, int referenceComponents) {
+            if (value == null || !seen.add(value)) {
+                return false;
+            }
+            long[] counts = type(type);
+            counts[0]++;
+            counts[1] += recordBytes(referenceComponents);
+            return true;
+        }
+
+        private void field(String type, String field, long bytes) {
+            type(type);
+            fields.get(type).merge(field, bytes, Long::sum);
+        }
+
+        // Instance count and shallow bytes of the type, registering it on first use
+        private long[] type(String type) {
+            fields.computeIfAbsent(type, t -> new LinkedHashMap<>());
+            return shallow.computeIfAbsent(type, t -> new long[2]);
+        }
+
+        private boolean first(Object value) {
+            return value != null && seen.add(value);
+        }
+
+        private long uuid(UUID id) {
+            return first(id) ? UUID_BYTES : 0;
+        }
+
+        private long dateTime(LocalDateTime value) {
+            if (!first(value)) {
+                return 0;
+            }
+            return LOCAL_DATE_TIME_BYTES + date(value.toLocalDate()) + time(value.toLocalTime());
+        }
+
+        private long date(LocalDate value) {
+            return first(value) ? LOCAL_DATE_BYTES : 0;
+        }
+
+        private long time(LocalTime value) {
+            // Whole hours are shared constants
+            if (value.getMinute() == 0 && value.getSecond() == 0 && value.getNano() == 0) {
+                return 0;
+            }
+            return first(value) ? LOCAL_TIME_BYTES : 0;
+        }
+
+        private long decimal(BigDecimal value) {
+            if (!first(value)) {
+                return 0;
+            }
+            int bits = value.unscaledValue().bitLength();
+            // Unscaled values that fit in a long are kept inline; larger ones need a BigInteger and its int[]
+            return bits <= 63
+                    ? BIG_DECIMAL_BYTES
+                    : BIG_DECIMAL_BYTES + BIG_INTEGER_BYTES + align(ARRAY_HEADER + 4L * ((bits + 31) / 32));
+        }
+
+        private long integer(Integer value) {
+            if (value == null || (value >= -128 && value <= 127)) {
+                return 0;
+            }
+            return first(value) ? INTEGER_BYTES : 0;
+        }
+
+        private long string(String value) {
+            if (!first(value)) {
+                return 0;
+            }
+            boolean latin1 = value.chars().allMatch(c -> c < 256);
+            return STRING_BYTES + align(ARRAY_HEADER + (long) value.length() * (latin1 ? 1 : 2));
+        }
+
+        private long list(List<?> value) {
+            return first(value) ? listBytes(value) : 0;
+        }
+    }
+}
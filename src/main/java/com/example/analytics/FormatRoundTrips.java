@@ -0,0 +1,206 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Customer;
+import com.example.analytics.records.Order;
+import com.example.analytics.records.Transaction;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// Encode -> decode checks of the binary formats on one seeded data set. Every decoded value must equal
+// what was encoded; each mismatch is reported and the run exits with 1, so the benchmark profile fails
+// on a format break.
+//
+// Usage: FormatRoundTrips [orders] [seed]   (defaults 20000 and 42)
+public final class FormatRoundTrips {
+
+    private final List<Order> orders;
+    private final List<String> mismatches = new ArrayList<>();
+
+    public FormatRoundTrips(List<Order> orders) {
+        this.orders = Objects.requireNonNull(orders, "orders cannot be null");
+    }
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        List<String> mismatches = new FormatRoundTrips(DataGenerator.generateOrders(count, seed)).run();
+        mismatches.forEach(mismatch -> System.out.println("MISMATCH " + mismatch));
+        if (!mismatches.isEmpty()) {
+            System.out.println(mismatches.size() + " round trip mismatch(es)");
+            System.exit(1);
+        }
+        System.out.println("All formats round-trip");
+    }
+
+    // Descriptions of every value that did not survive its round trip
+    public List<String> run() throws IOException {
+        coldPartitions();
+        rollupCubes();
+        codecMessages();
+        return mismatches;
+    }
+
+    // Every day of orders is compacted and decoded again, in order, with the rollup computed at compaction
+    private void coldPartitions() {
+        Map<LocalDate, List<Order>> byDay = orders.stream()
+                .filter(order -> order != null && order.orderDate() != null)
+                .collect(Collectors.groupingBy(order -> order.orderDate().toLocalDate(), TreeMap::new, Collectors.toList()));
+        long encodedBytes = 0;
+        for (Map.Entry<LocalDate, List<Order>> day : byDay.entrySet()) {
+            ColdPartition partition = ColdPartition.compact(day.getKey(), day.getValue());
+            check("ColdPartition orders of " + day.getKey(), day.getValue(), partition.orders());
+            check("ColdPartition rollup of " + day.getKey(),
+                    DailyRollup.of(day.getKey(), day.getValue().stream().map(EnrichedOrder::of).toList()),
+                    partition.rollup());
+            encodedBytes += partition.encodedBytes();
+        }
+        System.out.println("ColdPartition: " + byDay.size() + " days, " + encodedBytes + " encoded bytes");
+    }
+
+    // Cubes with and without the customer grain are saved and loaded again. Cells are compared through the
+    // public API: the statistics of every day, category, status, tier and customer slice, and the rollup queries.
+    private void rollupCubes() throws IOException {
+        Set<Long> days = new HashSet<>();
+        Set<String> categories = new HashSet<>();
+        Set<String> statuses = new HashSet<>();
+        Set<String> tiers = new HashSet<>();
+        Set<Customer> customers = new HashSet<>();
+        Set<YearMonth> months = new HashSet<>();
+        for (Order order : orders) {
+            if (order == null) {
+                continue;
+            }
+            EnrichedOrder enriched = EnrichedOrder.of(order);
+            days.add(enriched.epochDay());
+            if (enriched.yearMonth() != null) {
+                months.add(enriched.yearMonth());
+            }
+            if (order.customer() != null) {
+                customers.add(order.customer());
+                tiers.add(order.customer().tier());
+            }
+            for (Transaction transaction : order.transactions()) {
+                if (transaction != null) {
+                    statuses.add(transaction.status());
+                    if (transaction.product() != null) {
+                        categories.add(transaction.product().category());
+                    }
+                }
+            }
+        }
+
+        for (boolean customerGrain : new boolean[] {false, true}) {
+            String name = customerGrain ? "RollupCube (customer grain)" : "RollupCube";
+            RollupCube cube = RollupCube.of(orders, customerGrain);
+            Path file = Files.createTempFile("rollup-cube", ".bin");
+            try {
+                cube.save(file);
+                RollupCube loaded = RollupCube.load(file);
+                check(name + " grain", cube.hasCustomerGrain(), loaded.hasCustomerGrain());
+                check(name + " cell count", cube.cellCount(), loaded.cellCount());
+                checkSlice(name, "all", cube, loaded, key -> true);
+                days.forEach(day -> checkSlice(name, "day " + day, cube, loaded, key -> key.epochDay() == day));
+                categories.forEach(category -> checkSlice(name, "category " + category, cube, loaded,
+                        key -> Objects.equals(key.category(), category)));
+                statuses.forEach(status -> checkSlice(name, "status " + status, cube, loaded,
+                        key -> Objects.equals(key.status(), status)));
+                tiers.forEach(tier -> checkSlice(name, "tier " + tier, cube, loaded, key -> Objects.equals(key.tier(), tier)));
+                check(name + " category averages",
+                        cube.averageTransactionValuePerCategory(), loaded.averageTransactionValuePerCategory());
+                if (customerGrain) {
+                    customers.forEach(customer -> checkSlice(name, "customer " + customer.id(), cube, loaded,
+                            key -> customer.equals(key.customer())));
+                    months.forEach(month -> check(name + " top customers of " + month,
+                            cube.topCustomersBySpendInMonth(month), loaded.topCustomersBySpendInMonth(month)));
+                }
+                System.out.println(name + ": " + cube.cellCount() + " cells, " + Files.size(file) + " bytes");
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // One message of every AnalyticsCodec type, written back to back into one direct buffer and read by
+    // dispatching on peekType, as a receiving service would; the buffer must be consumed exactly
+    private void codecMessages() {
+        AnalyticsService service = new AnalyticsServiceImpl();
+        List<Order> present = orders.stream().filter(Objects::nonNull).toList();
+        List<Transaction> transactions = present.stream()
+                .flatMap(order -> order.transactions().stream())
+                .filter(Objects::nonNull)
+                .toList();
+        // Distinct customers of the orders, including the null customer of the edge-case orders
+        List<Customer> customers = present.stream().map(Order::customer).distinct().toList();
+        LocalDate end = DataGenerator.SEEDED_BASE_TIME.toLocalDate();
+
+        // The unscaled value of the large decimal does not fit in a long
+        BigDecimal large = new BigDecimal("123456789012345678901234567890.123");
+        BigDecimalStatistics statistics = transactions.stream()
+                .collect(BigDecimalCollectors.toBigDecimalStatistics(Transaction::totalValue));
+        BigDecimalStatistics largeStatistics = BigDecimalStatistics.of(1, large, large, large);
+        Map<LocalDate, BigDecimal> report = service.generateDateRangeReport(present, end.minusDays(90), end);
+        Map<UUID, BigDecimal> scores = service.calculateComplexRiskScore(present.subList(0, Math.min(200, present.size())));
+        BigDecimalCollectors.BigDecimalAccumulator accumulator = transactions.stream()
+                .collect(BigDecimalCollectors.toBigDecimalAccumulator(Transaction::totalValue));
+        BigDecimalCollectors.BigDecimalAccumulator empty = new BigDecimalCollectors.BigDecimalAccumulator();
+        List<Map.Entry<Object, byte[]>> samples = List.of(
+            Map.entry(statistics, AnalyticsCodec.encode(statistics)),
+            Map.entry(BigDecimalStatistics.NEUTRAL, AnalyticsCodec.encode(BigDecimalStatistics.NEUTRAL)),
+            Map.entry(largeStatistics, AnalyticsCodec.encode(largeStatistics)),
+            Map.entry(customers, AnalyticsCodec.encodeCustomers(customers)),
+            Map.entry(report, AnalyticsCodec.encodeDateReport(report)),
+            Map.entry(scores, AnalyticsCodec.encodeRiskMap(scores)),
+            Map.entry(components(accumulator), AnalyticsCodec.encode(accumulator)),
+            Map.entry(components(empty), AnalyticsCodec.encode(empty))
+        );
+        ByteBuffer buffer = ByteBuffer.allocateDirect(samples.stream().mapToInt(sample -> sample.getValue().length).sum());
+        samples.forEach(sample -> buffer.put(sample.getValue()));
+        buffer.flip();
+
+        for (Map.Entry<Object, byte[]> sample : samples) {
+            AnalyticsCodec.Type type = AnalyticsCodec.peekType(buffer);
+            Object decoded = switch (type) {
+                case STATISTICS -> AnalyticsCodec.decodeStatistics(buffer);
+                case CUSTOMER_LIST -> AnalyticsCodec.decodeCustomers(buffer);
+                case DATE_REPORT -> AnalyticsCodec.decodeDateReport(buffer);
+                case RISK_MAP -> AnalyticsCodec.decodeRiskMap(buffer);
+                case ACCUMULATOR -> components(AnalyticsCodec.decodeAccumulator(buffer));
+            };
+            check("AnalyticsCodec " + type + " message", sample.getKey(), decoded);
+        }
+        check("AnalyticsCodec bytes left unread", 0, buffer.remaining());
+        System.out.println("AnalyticsCodec: " + samples.size() + " messages, " + buffer.limit() + " bytes");
+    }
+
+    // Accumulators have no equals; they are compared by their components
+    private static List<Object> components(BigDecimalCollectors.BigDecimalAccumulator accumulator) {
+        return Arrays.asList(accumulator.count(), accumulator.sum(), accumulator.min(), accumulator.max());
+    }
+
+    private void checkSlice(String name, String slice, RollupCube cube, RollupCube loaded, Predicate<RollupCube.Key> filter) {
+        check(name + " statistics of " + slice, cube.statistics(filter), loaded.statistics(filter));
+    }
+
+    private void check(String what, Object expected, Object decoded) {
+        if (!Objects.equals(expected, decoded)) {
+            mismatches.add(what);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.analytics;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Flow.Publisher over a lazily created iterator, with demand-driven backpressure.
+// Every subscriber gets its own iterator, created on its first request. Elements are pulled from
+// the iterator on the executor only while there is outstanding demand, so a slow subscriber never
+// forces the whole result to be produced, and cancel() stops production at the next element.
+// hasNext() is not probed without demand either, since for a lazy source it computes the next element.
+// Sources whose iterator is Exhaustible report the end cheaply instead, so onComplete follows the last
+// element even when the subscriber requested exactly the remaining count; for other sources it comes with
+// the next request. ofList publishes a materialized list this way.
+public final class IteratorPublisher<T> implements Flow.Publisher<T> {
+
+    // An iterator that can tell that it has no more elements without producing one
+    public interface Exhaustible {
+        boolean isExhausted();
+    }
+
+    private final Function<LongSupplier, ? extends Iterator<? extends T>> source;
+    private final Executor executor;
+
+    public IteratorPublisher(Supplier<? extends Iterator<? extends T>> source, Executor executor) {
+        this(demandAware(Objects.requireNonNull(source, "source cannot be null")), executor);
+    }
+
+    // For sources that produce in batches: the function receives the subscriber's outstanding demand,
+    // which is at least 1 whenever the iterator is asked for an element
+    public IteratorPublisher(Function<LongSupplier, ? extends Iterator<? extends T>> source, Executor executor) {
+        this.source = Objects.requireNonNull(source, "source cannot be null");
+        this.executor = Objects.requireNonNull(executor, "executor cannot be null");
+    }
+
+    // Publisher over a list computed on the first request, completing right after its last element
+    public static <T> IteratorPublisher<T> ofList(Supplier<? extends List<? extends T>> list, Executor executor) {
+        Objects.requireNonNull(list, "list cannot be null");
+        return new IteratorPublisher<T>(() -> new ListSource<T>(list.get()), executor);
+    }
+
+    private static <T> Function<LongSupplier, Iterator<? extends T>> demandAware(Supplier<? extends Iterator<? extends T>> source) {
+        return demand -> source.get();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber cannot be null");
+        IteratorSubscription subscription = new IteratorSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private final class IteratorSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        // Number of pending drain requests; only the caller that moves it off zero schedules a drain,
+        // so the iterator is only ever touched by one thread at a time
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private volatile boolean cancelled;
+        private Iterator<? extends T> iterator;
+        private volatile Throwable invalidRequest;
+
+        IteratorSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested " + n + " elements, must be positive");
+            } else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RuntimeException e) {
+                    cancelled = true;
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (emitWhileDemanded()) {
+                    // Terminal: release the iterator and ignore any further signals
+                    cancelled = true;
+                    iterator = null;
+                }
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        // Returns true once the subscription has reached a terminal state
+        private boolean emitWhileDemanded() {
+            if (cancelled) {
+                iterator = null;
+                return false;
+            }
+            if (invalidRequest != null) {
+                subscriber.onError(invalidRequest);
+                return true;
+            }
+            try {
+                if (iterator == null) {
+                    iterator = Objects.requireNonNull(source.apply(demand::get), "source returned a null iterator");
+                }
+                while (demand.get() > 0 && !cancelled) {
+                    if (!iterator.hasNext()) {
+                        subscriber.onComplete();
+                        return true;
+                    }
+                    subscriber.onNext(iterator.next());
+                    demand.decrementAndGet();
+                }
+                if (!cancelled && iterator instanceof Exhaustible exhaustible && exhaustible.isExhausted()) {
+                    subscriber.onComplete();
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                subscriber.onError(e);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class ListSource<T> implements Iterator<T>, Exhaustible {
+        private final List<? extends T> list;
+        private int next;
+
+        ListSource(List<? extends T> list) {
+            this.list = Objects.requireNonNull(list, "source returned a null list");
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < list.size();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return list.get(next++);
+        }
+
+        @Override
+        public boolean isExhausted() {
+            return !hasNext();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.analytics;
+
+// Logistic regression over the order features; scores fall in (0, 1).
+// Order value enters on a log scale, recency as an exponential decay with a 30-day time constant.
+public record LogisticRiskModel(
+    double bias,
+    double valueWeight,
+    double transactionCountWeight,
+    double failureRatioWeight,
+    double tierWeight,
+    double recencyWeight
+) implements RiskModel {
+
+    private static final double RECENCY_DECAY_DAYS = 30.0;
+
+    // Hand-tuned defaults: failures dominate, large and recent orders add risk, loyal tiers reduce it
+    public static final LogisticRiskModel DEFAULT = new LogisticRiskModel(-3.0, 0.25, 0.1, 4.0, -0.4, 1.0);
+
+    @Override
+    public double score(double totalValue, int transactionCount, double failureRatio, int customerTier, double recencyDays) {
+        double z = bias
+                + valueWeight * Math.log1p(Math.max(0.0, totalValue))
+                + transactionCountWeight * transactionCount
+                + failureRatioWeight * failureRatio
+                + tierWeight * customerTier
+                + recencyWeight * Math.exp(-recencyDays / RECENCY_DECAY_DAYS);
+        return 1.0 / (1.0 + Math.exp(-z));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Order;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// One day of orders in a PartitionedOrderStore
+interface OrderPartition {
+
+    LocalDate day();
+
+    int size();
+
+    List<Order> orders();
+
+    DailyRollup rollup();
+}
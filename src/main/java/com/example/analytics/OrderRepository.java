@@ -0,0 +1,138 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Order;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-memory, append-only order store for concurrent ingestion and analytics.
+// Orders live in fixed-size segments; a slot is written exactly once, before the epoch that covers it
+// is published through a volatile field. A snapshot captures one epoch (segment directory + size) and
+// only ever reads slots below that size, so it is immutable and consistent without copying anything,
+// and can be handed straight to AnalyticsService methods as a List<Order>.
+// Appends are serialized by a lock held only while slots are filled; ingestion threads should prefer
+// appendAll() for batches. The segment directory is copy-on-write when it grows; segments never move.
+public class OrderRepository {
+
+    private static final int SEGMENT_SHIFT = 12;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    // One published state of the repository
+    private record Epoch(long number, Order[][] segments, int size) {}
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private volatile Epoch published = new Epoch(0L, new Order[0][], 0);
+
+    // Writer-side state, guarded by appendLock
+    private Order[][] segments = new Order[0][];
+    private int size;
+
+    public void append(Order order) {
+        Objects.requireNonNull(order, "order cannot be null");
+        appendLock.lock();
+        try {
+            put(order);
+            publish();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Appends the batch and publishes it as a single epoch
+    public void appendAll(Collection<? extends Order> orders) {
+        Order[] batch = orders.toArray(new Order[0]);
+        for (Order order : batch) {
+            Objects.requireNonNull(order, "orders cannot contain null");
+        }
+        appendLock.lock();
+        try {
+            for (Order order : batch) {
+                put(order);
+            }
+            publish();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(published);
+    }
+
+    public long epoch() {
+        return published.number();
+    }
+
+    public int size() {
+        return published.size();
+    }
+
+    private void put(Order order) {
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Repository is full");
+        }
+        int segment = size >>> SEGMENT_SHIFT;
+        if (segment == segments.length) {
+            // Copy-on-write: published epochs keep their own directory array
+            segments = Arrays.copyOf(segments, Math.max(4, segments.length * 2));
+        }
+        if (segments[segment] == null) {
+            segments[segment] = new Order[SEGMENT_SIZE];
+        }
+        segments[segment][size & SEGMENT_MASK] = order;
+        size++;
+    }
+
+    private void publish() {
+        published = new Epoch(published.number() + 1, segments, size);
+    }
+
+    // Immutable view of the repository as of one epoch
+    public static final class Snapshot extends AbstractList<Order> implements RandomAccess {
+        private final Epoch epoch;
+        private volatile OrderSnapshot indexed;
+
+        private Snapshot(Epoch epoch) {
+            this.epoch = epoch;
+        }
+
+        public long epoch() {
+            return epoch.number();
+        }
+
+        @Override
+        public Order get(int index) {
+            Objects.checkIndex(index, epoch.size());
+            return epoch.segments()[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK];
+        }
+
+        @Override
+        public int size() {
+            return epoch.size();
+        }
+
+        @Override
+        public Spliterator<Order> spliterator() {
+            int size = epoch.size();
+            return new ChunkedSpliterator<>(this::get, 0, size, OrderSpliterators.chunkSize(size),
+                    Spliterator.IMMUTABLE | Spliterator.NONNULL);
+        }
+
+        // Time and customer indexes over this snapshot, built on first use; unlike the snapshot
+        // itself this copies the order references once
+        public OrderSnapshot indexed() {
+            OrderSnapshot result = indexed;
+            if (result == null) {
+                result = OrderSnapshot.of(this);
+                indexed = result;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Customer;
+import com.example.analytics.records.Order;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Set;
+
+// Immutable, indexed snapshot over a list of orders.
+// The snapshot keeps the caller's encounter order, so it can be passed anywhere a List<Order> is expected,
+// and adds two secondary indexes built once at construction:
+//  - a time index: positions sorted by order day, with the sorted day offsets kept alongside for binary search
+//  - a customer index: customer id -> ascending positions (posting list)
+// Each order is paired with an EnrichedOrder, so derived values such as totals are computed at most once
+// per snapshot no matter how many queries run against it.
+// AnalyticsServiceImpl detects snapshots and answers month, day and per-customer queries from the indexes.
+public final class OrderSnapshot extends AbstractList<Order> implements RandomAccess {
+
+    private final Order[] orders;
+    private final EnrichedOrder[] enriched;
+
+    // Time index: byDay[i] is a position in orders, dayOffsets[i] its orderDate as (epochDay - minEpochDay)
+    private final long minEpochDay;
+    private final int[] dayOffsets;
+    private final int[] byDay;
+
+    // Customer index: customer id -> ascending positions in orders
+    private final Map<String, int[]> byCustomer;
+
+    private OrderSnapshot(Order[] orders) {
+        this.orders = orders;
+        this.enriched = new EnrichedOrder[orders.length];
+        for (int i = 0; i < orders.length; i++) {
+            enriched[i] = orders[i] != null ? EnrichedOrder.of(orders[i]) : null;
+        }
+
+        // Time index: pack (day offset, position) into one long so a primitive sort orders by day,
+        // then by position, without boxing
+        long min = Long.MAX_VALUE;
+        int dated = 0;
+        for (EnrichedOrder order : enriched) {
+            if (order != null && order.hasOrderDate()) {
+                min = Math.min(min, order.epochDay());
+                dated++;
+            }
+        }
+        this.minEpochDay = dated == 0 ? 0L : min;
+
+        long[] keys = new long[dated];
+        int k = 0;
+        for (int i = 0; i < orders.length; i++) {
+            EnrichedOrder order = enriched[i];
+            if (order != null && order.hasOrderDate()) {
+                long offset = order.epochDay() - minEpochDay;
+                if (offset > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Order dates span too many days to index: " + offset);
+                }
+                keys[k++] = (offset << 32) | i;
+            }
+        }
+        Arrays.sort(keys);
+
+        this.dayOffsets = new int[dated];
+        this.byDay = new int[dated];
+        for (int i = 0; i < dated; i++) {
+            dayOffsets[i] = (int) (keys[i] >>> 32);
+            byDay[i] = (int) keys[i];
+        }
+
+        // Customer index: count first so every posting list is allocated exactly once
+        Map<String, int[]> counts = new HashMap<>();
+        for (Order order : orders) {
+            String customerId = customerId(order);
+            if (customerId != null) {
+                counts.computeIfAbsent(customerId, id -> new int[1])[0]++;
+            }
+        }
+        Map<String, int[]> postings = new HashMap<>(Math.max(16, counts.size() * 4 / 3 + 1));
+        counts.forEach((id, count) -> postings.put(id, new int[count[0]]));
+        counts.values().forEach(count -> count[0] = 0);
+        for (int i = 0; i < orders.length; i++) {
+            String customerId = customerId(orders[i]);
+            if (customerId != null) {
+                postings.get(customerId)[counts.get(customerId)[0]++] = i;
+            }
+        }
+        this.byCustomer = postings;
+    }
+
+    public static OrderSnapshot of(Collection<Order> orders) {
+        if (orders instanceof OrderSnapshot snapshot) {
+            return snapshot;
+        }
+        return new OrderSnapshot(orders.toArray(new Order[0]));
+    }
+
+    private static String customerId(Order order) {
+        return order != null && order.customer() != null ? order.customer().id() : null;
+    }
+
+    @Override
+    public Order get(int index) {
+        return orders[index];
+    }
+
+    @Override
+    public int size() {
+        return orders.length;
+    }
+
+    // Enriched orders in encounter order; null orders stay null
+    public List<EnrichedOrder> enriched() {
+        return Collections.unmodifiableList(Arrays.asList(enriched));
+    }
+
+    // Orders whose orderDate falls on the given day, in encounter order
+    public List<Order> ordersOnDay(LocalDate day) {
+        return ordersBetween(day, day);
+    }
+
+    // Orders whose orderDate falls in the given month, grouped by day
+    public List<Order> ordersInMonth(YearMonth yearMonth) {
+        return ordersBetween(yearMonth.atDay(1), yearMonth.atEndOfMonth());
+    }
+
+    // Orders whose orderDate falls between the two days (both inclusive), grouped by day
+    public List<Order> ordersBetween(LocalDate startInclusive, LocalDate endInclusive) {
+        return between(orders, startInclusive, endInclusive);
+    }
+
+    public List<EnrichedOrder> enrichedBetween(LocalDate startInclusive, LocalDate endInclusive) {
+        return between(enriched, startInclusive, endInclusive);
+    }
+
+    // Orders placed by the given customer, in encounter order
+    public List<Order> ordersForCustomer(String customerId) {
+        return forCustomer(orders, customerId);
+    }
+
+    public List<EnrichedOrder> enrichedForCustomer(String customerId) {
+        return forCustomer(enriched, customerId);
+    }
+
+    private <T> List<T> between(T[] source, LocalDate startInclusive, LocalDate endInclusive) {
+        if (dayOffsets.length == 0 || endInclusive.isBefore(startInclusive)) {
+            return List.of();
+        }
+        int from = lowerBound(startInclusive.toEpochDay() - minEpochDay);
+        int to = lowerBound(endInclusive.toEpochDay() - minEpochDay + 1);
+        return new PositionView<>(source, byDay, from, to);
+    }
+
+    private <T> List<T> forCustomer(T[] source, String customerId) {
+        int[] positions = byCustomer.get(customerId);
+        return positions == null ? List.of() : new PositionView<>(source, positions, 0, positions.length);
+    }
+
+    public Optional<Customer> customer(String customerId) {
+        int[] positions = byCustomer.get(customerId);
+        return positions == null ? Optional.empty() : Optional.of(orders[positions[0]].customer());
+    }
+
+    public Set<String> customerIds() {
+        return Collections.unmodifiableSet(byCustomer.keySet());
+    }
+
+    // First index in dayOffsets whose value is >= offset
+    private int lowerBound(long offset) {
+        if (offset <= 0) {
+            return 0;
+        }
+        if (offset > Integer.MAX_VALUE) {
+            return dayOffsets.length;
+        }
+        int low = 0;
+        int high = dayOffsets.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dayOffsets[mid] < offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Read-only list view over a slice of an index
+    private static final class PositionView<T> extends AbstractList<T> implements RandomAccess {
+        private final T[] source;
+        private final int[] positions;
+        private final int from;
+        private final int to;
+
+        PositionView(T[] source, int[] positions, int from, int to) {
+            this.source = source;
+            this.positions = positions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public T get(int index) {
+            Objects.checkIndex(index, to - from);
+            return source[positions[from + index]];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.analytics;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Picks a well-balanced spliterator for whatever shape the orders arrive in, so parallel speedup
+// no longer depends on the caller's collection type:
+//  - RandomAccess lists: ChunkedSpliterator over list.get(i)
+//  - collections whose own spliterator is SUBSIZED: used as is
+//  - everything else (LinkedList, sets, iterators, unknown-size streams): BatchingSpliterator
+public final class OrderSpliterators {
+
+    // Aim for a few chunks per worker so stragglers can be balanced out
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final int MIN_CHUNK_SIZE = 16;
+
+    private OrderSpliterators() {
+    }
+
+    public static <T> Spliterator<T> of(Iterable<T> source) {
+        if (source instanceof List<T> list && list instanceof RandomAccess) {
+            return new ChunkedSpliterator<>(list::get, 0, list.size(), chunkSize(list.size()), 0);
+        }
+        if (source instanceof Collection<T> collection) {
+            Spliterator<T> own = collection.spliterator();
+            return own.hasCharacteristics(Spliterator.SUBSIZED)
+                    ? own
+                    : new BatchingSpliterator<>(own, chunkSize(collection.size()));
+        }
+        // Iterable's default spliterator does not report ORDERED, the iterator itself is in encounter order
+        return of(source.iterator());
+    }
+
+    public static <T> Spliterator<T> of(Iterator<T> source) {
+        return new BatchingSpliterator<>(source, -1, BatchingSpliterator.DEFAULT_BATCH_SIZE);
+    }
+
+    public static <T> Spliterator<T> of(Spliterator<T> source) {
+        if (source.hasCharacteristics(Spliterator.SUBSIZED)) {
+            return source;
+        }
+        long size = source.estimateSize();
+        return new BatchingSpliterator<>(source,
+                size == Long.MAX_VALUE ? BatchingSpliterator.DEFAULT_BATCH_SIZE : chunkSize(size));
+    }
+
+    public static <T> Stream<T> stream(Iterable<T> source, boolean parallel) {
+        return StreamSupport.stream(of(source), parallel);
+    }
+
+    // Re-splits a caller's stream; closing the returned stream closes the original
+    public static <T> Stream<T> stream(Stream<T> source, boolean parallel) {
+        return StreamSupport.stream(of(source.spliterator()), parallel).onClose(source::close);
+    }
+
+    static int chunkSize(long size) {
+        long workers = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        long chunk = size / (workers * CHUNKS_PER_WORKER);
+        return (int) Math.min(BatchingSpliterator.DEFAULT_BATCH_SIZE, Math.max(MIN_CHUNK_SIZE, chunk));
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Customer;
+import com.example.analytics.records.Order;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Order storage partitioned by order day.
+// The most recent hotDays days stay in mutable on-heap partitions; compact() turns older days into
+// immutable ColdPartitions (columnar, delta- and dictionary-encoded). Every partition exposes a
+// DailyRollup: cold partitions carry the one computed at compaction, hot partitions compute theirs
+// from the raw orders and cache it until the next append.
+// The date range report and the monthly top-customer query are answered from rollups, so cold days
+// cost one lookup each and only hot days are scanned.
+// Orders without an orderDate are kept aside; they are part of orders() but of no time-based query.
+// orders() returns a Snapshot that carries the rollups along, so AnalyticsServiceImpl answers the same
+// two queries from them when it is handed the snapshot instead of a plain list.
+public class PartitionedOrderStore {
+
+    public static final int DEFAULT_HOT_DAYS = 30;
+
+    private final int hotDays;
+    private final Clock clock;
+    private final NavigableMap<LocalDate, OrderPartition> partitions = new ConcurrentSkipListMap<>();
+    private final List<Order> undated = new ArrayList<>();
+
+    public PartitionedOrderStore() {
+        this(DEFAULT_HOT_DAYS, Clock.systemDefaultZone());
+    }
+
+    public PartitionedOrderStore(int hotDays, Clock clock) {
+        if (hotDays < 1) {
+            throw new IllegalArgumentException("hotDays must be positive: " + hotDays);
+        }
+        this.hotDays = hotDays;
+        this.clock = Objects.requireNonNull(clock, "clock cannot be null");
+    }
+
+    public synchronized void add(Order order) {
+        Objects.requireNonNull(order, "order cannot be null");
+        if (order.orderDate() == null) {
+            undated.add(order);
+            return;
+        }
+        LocalDate day = order.orderDate().toLocalDate();
+        OrderPartition partition = partitions.get(day);
+        HotPartition hot;
+        if (partition instanceof HotPartition existing) {
+            hot = existing;
+        } else {
+            // Late arrival for a compacted day: reopen it; the next compact() seals it again
+            hot = new HotPartition(day, partition == null ? List.of() : partition.orders());
+            partitions.put(day, hot);
+        }
+        hot.add(order);
+    }
+
+    public void addAll(Collection<Order> orders) {
+        orders.forEach(this::add);
+    }
+
+    // Compacts every hot partition older than the hot window; returns how many were compacted
+    public synchronized int compact() {
+        LocalDate firstHotDay = LocalDate.now(clock).minusDays(hotDays - 1L);
+        int compacted = 0;
+        for (OrderPartition partition : List.copyOf(partitions.headMap(firstHotDay, false).values())) {
+            if (partition instanceof HotPartition hot) {
+                partitions.put(hot.day(), ColdPartition.compact(hot.day(), hot.orders()));
+                compacted++;
+            }
+        }
+        return compacted;
+    }
+
+    public int size() {
+        int dated = partitions.values().stream().mapToInt(OrderPartition::size).sum();
+        synchronized (this) {
+            return dated + undated.size();
+        }
+    }
+
+    public boolean isCold(LocalDate day) {
+        return partitions.get(day) instanceof ColdPartition;
+    }
+
+    public Optional<DailyRollup> rollup(LocalDate day) {
+        return Optional.ofNullable(partitions.get(day)).map(OrderPartition::rollup);
+    }
+
+    // Orders of the given days (both inclusive); cold days are decoded
+    public List<Order> ordersBetween(LocalDate startInclusive, LocalDate endInclusive) {
+        return partitions.subMap(startInclusive, true, endInclusive, true).values().stream()
+                .flatMap(partition -> partition.orders().stream())
+                .collect(Collectors.toList());
+    }
+
+    // Every order, for queries without a rollup; cold days are decoded. The snapshot is taken under the
+    // store lock, so its orders and rollups describe the same state.
+    public synchronized Snapshot orders() {
+        List<Order> all = new ArrayList<>(size());
+        NavigableMap<LocalDate, DailyRollup> rollups = new TreeMap<>();
+        for (OrderPartition partition : partitions.values()) {
+            all.addAll(partition.orders());
+            rollups.put(partition.day(), partition.rollup());
+        }
+        all.addAll(undated);
+        return new Snapshot(all, rollups);
+    }
+
+    // Same result as AnalyticsService.generateDateRangeReport over all stored orders
+    public Map<LocalDate, BigDecimal> generateDateRangeReport(LocalDate start, LocalDate end) {
+        return dateRangeReport(start, end, date -> rollup(date).orElse(null));
+    }
+
+    // Same result as AnalyticsService.topCustomersBySpendInMonth over all stored orders
+    public List<Customer> topCustomersBySpendInMonth(YearMonth yearMonth) {
+        return topCustomers(partitions.subMap(yearMonth.atDay(1), true, yearMonth.atEndOfMonth(), true).values().stream()
+                .map(OrderPartition::rollup));
+    }
+
+    private static Map<LocalDate, BigDecimal> dateRangeReport(LocalDate start, LocalDate end,
+                                                             Function<LocalDate, DailyRollup> rollups) {
+        return Stream.iterate(start, date -> !date.isAfter(end), date -> date.plusDays(1))
+                .collect(Collectors.toMap(
+                    date -> date,
+                    date -> Optional.ofNullable(rollups.apply(date)).map(DailyRollup::totalValue).orElse(BigDecimal.ZERO)
+                ));
+    }
+
+    private static List<Customer> topCustomers(Stream<DailyRollup> rollups) {
+        Map<Customer, BigDecimal> spend = new HashMap<>();
+        rollups.forEach(rollup -> rollup.spendByCustomer()
+                .forEach((customer, value) -> spend.merge(customer, value, BigDecimal::add)));
+        return spend.entrySet().stream()
+                .sorted((e1, e2) -> e2.getValue().compareTo(e1.getValue()))
+                .limit(3)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    // Immutable list of the stored orders together with the rollup of every stored day
+    public static final class Snapshot extends AbstractList<Order> implements RandomAccess {
+        private final List<Order> orders;
+        private final NavigableMap<LocalDate, DailyRollup> rollups;
+
+        private Snapshot(List<Order> orders, NavigableMap<LocalDate, DailyRollup> rollups) {
+            this.orders = orders;
+            this.rollups = rollups;
+        }
+
+        @Override
+        public Order get(int index) {
+            return orders.get(index);
+        }
+
+        @Override
+        public int size() {
+            return orders.size();
+        }
+
+        public Map<LocalDate, BigDecimal> generateDateRangeReport(LocalDate start, LocalDate end) {
+            return dateRangeReport(start, end, rollups::get);
+        }
+
+        public List<Customer> topCustomersBySpendInMonth(YearMonth yearMonth) {
+            return topCustomers(rollups.subMap(yearMonth.atDay(1), true, yearMonth.atEndOfMonth(), true).values().stream());
+        }
+    }
+
+    // Mutable partition for a recent day
+    private static final class HotPartition implements OrderPartition {
+        private final LocalDate day;
+        private final List<Order> orders;
+        private DailyRollup rollup;
+
+        HotPartition(LocalDate day, List<Order> initial) {
+            this.day = day;
+            this.orders = new ArrayList<>(initial);
+        }
+
+        synchronized void add(Order order) {
+            orders.add(order);
+            rollup = null;
+        }
+
+        @Override
+        public LocalDate day() {
+            return day;
+        }
+
+        @Override
+        public synchronized int size() {
+            return orders.size();
+        }
+
+        @Override
+        public synchronized List<Order> orders() {
+            return List.copyOf(orders);
+        }
+
+        @Override
+        public synchronized DailyRollup rollup() {
+            if (rollup == null) {
+                rollup = DailyRollup.of(day, orders.stream().map(EnrichedOrder::of).toList());
+            }
+            return rollup;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Customer;
+import com.example.analytics.records.Order;
+import com.example.analytics.records.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+// AnalyticsService front end that lets an ExecutionPlanner pick the execution mode of every query,
+// runs it on a sequential or parallel AnalyticsServiceImpl and reports the observed latency back
+// to the planner.
+public class PlannedAnalyticsService implements AnalyticsService {
+
+    private final ExecutionPlanner planner;
+    private final AnalyticsService sequential = new AnalyticsServiceImpl(false);
+    private final AnalyticsService parallel = new AnalyticsServiceImpl(true);
+
+    public PlannedAnalyticsService() {
+        this(new ExecutionPlanner());
+    }
+
+    public PlannedAnalyticsService(ExecutionPlanner planner) {
+        this.planner = planner;
+    }
+
+    public ExecutionPlanner planner() {
+        return planner;
+    }
+
+    @Override
+    public List<Customer> topCustomersBySpendInMonth(List<Order> orders, YearMonth yearMonth) {
+        return execute("topCustomersBySpendInMonth", orders, Order[]::new,
+                (service, input) -> service.topCustomersBySpendInMonth(input, yearMonth));
+    }
+
+    @Override
+    public Map<String, Double> averageTransactionValuePerCategory(List<Order> orders) {
+        return execute("averageTransactionValuePerCategory", orders, Order[]::new,
+                AnalyticsService::averageTransactionValuePerCategory);
+    }
+
+    @Override
+    public List<Customer> detectSlaBreaches(List<Order> orders) {
+        return execute("detectSlaBreaches", orders, Order[]::new, AnalyticsService::detectSlaBreaches);
+    }
+
+    @Override
+    public Map<String, Object> firstAndLastTransactionOfHighestValueOrder(List<Order> orders) {
+        return execute("firstAndLastTransactionOfHighestValueOrder", orders, Order[]::new,
+                AnalyticsService::firstAndLastTransactionOfHighestValueOrder);
+    }
+
+    @Override
+    public Optional<ValuedOrder> highestValueOrder(List<Order> orders) {
+        return execute("highestValueOrder", orders, Order[]::new, AnalyticsService::highestValueOrder);
+    }
+
+    @Override
+    public List<ValuedOrder> topValueOrders(List<Order> orders, int n) {
+        return execute("topValueOrders", orders, Order[]::new,
+                (service, input) -> service.topValueOrders(input, n));
+    }
+
+    @Override
+    public BigDecimalStatistics getProductValueStatistics(List<Product> products) {
+        return execute("getProductValueStatistics", products, Product[]::new,
+                AnalyticsService::getProductValueStatistics);
+    }
+
+    @Override
+    public Map<UUID, BigDecimal> calculateComplexRiskScore(List<Order> orders) {
+        return execute("calculateComplexRiskScore", orders, Order[]::new,
+                AnalyticsService::calculateComplexRiskScore);
+    }
+
+    @Override
+    public Map<LocalDate, BigDecimal> generateDateRangeReport(List<Order> orders, LocalDate start, LocalDate end) {
+        return execute("generateDateRangeReport", orders, Order[]::new,
+                (service, input) -> service.generateDateRangeReport(input, start, end));
+    }
+
+    @Override
+    public List<Order> getOrdersInPriceRangeSorted(List<Order> orders, BigDecimal min, BigDecimal max) {
+        return execute("getOrdersInPriceRangeSorted", orders, Order[]::new,
+                (service, input) -> service.getOrdersInPriceRangeSorted(input, min, max));
+    }
+
+    @Override
+    public List<String> getCustomerEmails(Customer customer) {
+        // A handful of emails per customer: never worth planning
+        return sequential.getCustomerEmails(customer);
+    }
+
+    private <T, R> R execute(String query, List<T> input, IntFunction<T[]> arrayFactory,
+                             QueryCall<T, R> call) {
+        ExecutionPlanner.Plan plan = planner.plan(query, input);
+        long start = System.nanoTime();
+        R result = switch (plan.mode()) {
+            case SEQUENTIAL -> call.apply(sequential, input);
+            case PARALLEL -> inPool(() -> call.apply(parallel, input));
+            // The copy is part of the measured cost, so the planner learns whether it pays off
+            case COPY_TO_ARRAY_PARALLEL -> inPool(() -> call.apply(parallel, Arrays.asList(input.toArray(arrayFactory))));
+        };
+        planner.record(plan, System.nanoTime() - start);
+        return result;
+    }
+
+    // Parallel streams run in the pool of the task that starts them, so a dedicated pool
+    // needs the query submitted to it
+    private <R> R inPool(Supplier<R> query) {
+        ForkJoinPool pool = planner.pool();
+        return pool == ForkJoinPool.commonPool() ? query.get() : pool.submit(query::get).join();
+    }
+
+    @FunctionalInterface
+    private interface QueryCall<T, R> {
+        R apply(AnalyticsService service, List<T> input);
+    }
+}
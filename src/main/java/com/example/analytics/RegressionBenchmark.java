@@ -0,0 +1,318 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Order;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+// Regression benchmark over a fixed, seeded workload: every query x data set size x parallelism cell
+// is warmed up, then timed per operation. Results (throughput, p50/p90/p99 latency, bytes allocated per
+// operation, GC time) are written as CSV and compared against a stored baseline; any cell that is
+// worse than the baseline by more than the configured thresholds fails the run with exit code 1, and so
+// does any cell that is missing from either side.
+//
+// Options (all --name=value, separate arguments or whitespace-separated within one):
+//   --results=path           where to write this run's results (benchmark-results.csv)
+//   --baseline=path          results of a known-good run (benchmark-baseline.csv); missing = no comparison
+//   --update-baseline        also write this run's results as the new baseline; differences from the old
+//                            baseline are then reported but do not fail the run
+//   --sizes=10000,100000     data set sizes
+//   --parallelism=1,4        1 runs the sequential service, n > 1 the parallel one in an n-thread pool
+//                            (the default is fixed rather than the machine's core count, to match the baseline)
+//   --warmup=10 --iterations=200 --seed=42
+//   --max-throughput-drop=0.15 --max-p90-increase=0.30 --max-alloc-increase=0.10   (fractions)
+//
+// Latency is gated on p90, not p99: with a few hundred samples p99 is one of the slowest two or three
+// operations, i.e. a single GC pause or JIT event. The p90 gate needs at least 100 samples per cell
+// (so that it ignores the 10 slowest) on both sides; cells with fewer are reported but not latency-gated.
+// p99 is reported only.
+//
+// Allocation is summed over all live threads, so it covers the pool's workers as well.
+// calculateComplexRiskScore is left out: at ~1 ms per order it would dominate the run.
+public class RegressionBenchmark {
+
+    private static final String CSV_HEADER =
+            "query,size,parallelism,samples,opsPerSecond,p50Micros,p90Micros,p99Micros,allocatedBytesPerOp,gcMillis";
+    // Allocation differences below this are noise (TLAB retirement, JIT) whatever the relative change
+    private static final long ALLOCATION_SLACK_BYTES = 1024;
+    private static final String DEFAULT_SIZES = "10000,100000";
+    private static final String DEFAULT_PARALLELISM = "1,4";
+    private static final String DEFAULT_ITERATIONS = "200";
+    // Fewest timed operations per cell for which the p90 latency gate applies
+    static final int MIN_GATED_SAMPLES = 100;
+
+    public record Result(
+        String query,
+        int size,
+        int parallelism,
+        int samples,
+        double opsPerSecond,
+        double p50Micros,
+        double p90Micros,
+        double p99Micros,
+        long allocatedBytesPerOp,
+        long gcMillis
+    ) {
+        String key() {
+            return query + '/' + size + '/' + parallelism;
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%.2f,%.1f,%.1f,%.1f,%d,%d", query, size, parallelism,
+                    samples, opsPerSecond, p50Micros, p90Micros, p99Micros, allocatedBytesPerOp, gcMillis);
+        }
+
+        static Result fromCsv(String line) {
+            String[] f = line.split(",");
+            return new Result(f[0], Integer.parseInt(f[1]), Integer.parseInt(f[2]), Integer.parseInt(f[3]),
+                    Double.parseDouble(f[4]), Double.parseDouble(f[5]), Double.parseDouble(f[6]),
+                    Double.parseDouble(f[7]), Long.parseLong(f[8]), Long.parseLong(f[9]));
+        }
+    }
+
+    public record Thresholds(double maxThroughputDrop, double maxP90Increase, double maxAllocIncrease) {}
+
+    // The queries of the workload, in run order
+    private static final Map<String, BiConsumer<AnalyticsService, List<Order>>> QUERIES = new LinkedHashMap<>();
+
+    static {
+        YearMonth month = YearMonth.from(DataGenerator.SEEDED_BASE_TIME);
+        LocalDate end = DataGenerator.SEEDED_BASE_TIME.toLocalDate();
+        QUERIES.put("topCustomersBySpendInMonth", (service, orders) -> service.topCustomersBySpendInMonth(orders, month));
+        QUERIES.put("averageTransactionValuePerCategory", AnalyticsService::averageTransactionValuePerCategory);
+        QUERIES.put("detectSlaBreaches", AnalyticsService::detectSlaBreaches);
+        QUERIES.put("firstAndLastTransactionOfHighestValueOrder", AnalyticsService::firstAndLastTransactionOfHighestValueOrder);
+        QUERIES.put("generateDateRangeReport", (service, orders) -> service.generateDateRangeReport(orders, end.minusDays(90), end));
+        QUERIES.put("getOrdersInPriceRangeSorted", (service, orders) ->
+                service.getOrdersInPriceRangeSorted(orders, new BigDecimal("100.00"), new BigDecimal("500.00")));
+    }
+
+    private final int warmup;
+    private final int iterations;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    public RegressionBenchmark(int warmup, int iterations) {
+        this.warmup = warmup;
+        this.iterations = iterations;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        Path resultsFile = Path.of(options.getOrDefault("results", "benchmark-results.csv"));
+        Path baselineFile = Path.of(options.getOrDefault("baseline", "benchmark-baseline.csv"));
+        int[] sizes = parseInts(options.getOrDefault("sizes", DEFAULT_SIZES));
+        // Fixed, not machine-derived, so every run produces the same cells as the baseline
+        int[] parallelism = parseInts(options.getOrDefault("parallelism", DEFAULT_PARALLELISM));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Thresholds thresholds = new Thresholds(
+                Double.parseDouble(options.getOrDefault("max-throughput-drop", "0.15")),
+                Double.parseDouble(options.getOrDefault("max-p90-increase", "0.30")),
+                Double.parseDouble(options.getOrDefault("max-alloc-increase", "0.10")));
+        RegressionBenchmark benchmark = new RegressionBenchmark(
+                Integer.parseInt(options.getOrDefault("warmup", "10")),
+                Integer.parseInt(options.getOrDefault("iterations", DEFAULT_ITERATIONS)));
+        if (benchmark.iterations < MIN_GATED_SAMPLES) {
+            System.out.println("Only " + benchmark.iterations + " iterations per cell: latency is reported but not gated"
+                    + " (the p90 gate needs at least " + MIN_GATED_SAMPLES + ")");
+        }
+
+        List<Result> results = benchmark.run(sizes, parallelism, seed);
+        write(resultsFile, results);
+        System.out.println("Results written to " + resultsFile.toAbsolutePath());
+
+        // When recording a new baseline the differences to the old one are reported, but do not fail the run:
+        // a new baseline is typically recorded because the cells or the expected numbers changed
+        boolean updateBaseline = options.containsKey("update-baseline");
+        int regressions = 0;
+        if (Files.exists(baselineFile)) {
+            List<String> failures = compare(read(baselineFile), results, thresholds);
+            failures.forEach(failure -> System.out.println((updateBaseline ? "CHANGED " : "FAIL ") + failure));
+            regressions = updateBaseline ? 0 : failures.size();
+            System.out.println(failures.isEmpty()
+                    ? "No regressions against " + baselineFile
+                    : failures.size() + (updateBaseline ? " difference(s) from the replaced baseline " : " failure(s) against ")
+                            + baselineFile);
+        } else {
+            System.out.println("No baseline at " + baselineFile + ", nothing to compare");
+        }
+        if (updateBaseline) {
+            write(baselineFile, results);
+            System.out.println("Baseline updated: " + baselineFile.toAbsolutePath());
+        }
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    public List<Result> run(int[] sizes, int[] parallelism, long seed) {
+        List<Result> results = new ArrayList<>();
+        for (int size : sizes) {
+            List<Order> orders = DataGenerator.generateOrders(size, seed);
+            for (int threadCount : parallelism) {
+                for (Map.Entry<String, BiConsumer<AnalyticsService, List<Order>>> query : QUERIES.entrySet()) {
+                    Result result = measure(query.getKey(), query.getValue(), orders, threadCount);
+                    System.out.println(result.toCsv());
+                    results.add(result);
+                }
+            }
+        }
+        return results;
+    }
+
+    private Result measure(String name, BiConsumer<AnalyticsService, List<Order>> query,
+                           List<Order> orders, int parallelism) {
+        AnalyticsService service = new AnalyticsServiceImpl(parallelism > 1);
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        Runnable operation = pool == null
+                ? () -> query.accept(service, orders)
+                // Parallel streams run in the pool of the task that starts them
+                : () -> pool.submit(() -> query.accept(service, orders)).join();
+        try {
+            for (int i = 0; i < warmup; i++) {
+                operation.run();
+            }
+            long[] latencies = new long[iterations];
+            long gcBefore = gcMillis();
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                long operationStart = System.nanoTime();
+                operation.run();
+                latencies[i] = System.nanoTime() - operationStart;
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = allocatedBytes() - allocatedBefore;
+            long gc = gcMillis() - gcBefore;
+
+            Arrays.sort(latencies);
+            return new Result(name, orders.size(), parallelism, iterations,
+                    iterations * 1e9 / elapsed,
+                    percentile(latencies, 0.50) / 1_000.0,
+                    percentile(latencies, 0.90) / 1_000.0,
+                    percentile(latencies, 0.99) / 1_000.0,
+                    allocated < 0 ? -1 : allocated / iterations,
+                    gc);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // Descriptions of every cell that is worse than its baseline cell beyond the thresholds, and of every
+    // cell present on only one side: a run that does not cover the baseline's cells checks nothing for them
+    public static List<String> compare(List<Result> baseline, List<Result> current, Thresholds thresholds) {
+        Map<String, Result> byKey = new LinkedHashMap<>();
+        baseline.forEach(result -> byKey.put(result.key(), result));
+        List<String> failures = new ArrayList<>();
+        for (Result result : current) {
+            Result base = byKey.remove(result.key());
+            if (base == null) {
+                failures.add(result.key() + " has no baseline cell (re-record the baseline for a new matrix)");
+                continue;
+            }
+            if (result.opsPerSecond() < base.opsPerSecond() * (1 - thresholds.maxThroughputDrop())) {
+                failures.add(String.format(Locale.ROOT, "%s throughput %.2f ops/s < baseline %.2f ops/s",
+                        result.key(), result.opsPerSecond(), base.opsPerSecond()));
+            }
+            if (Math.min(result.samples(), base.samples()) >= MIN_GATED_SAMPLES
+                    && result.p90Micros() > base.p90Micros() * (1 + thresholds.maxP90Increase())) {
+                failures.add(String.format(Locale.ROOT, "%s p90 %.1f us > baseline %.1f us",
+                        result.key(), result.p90Micros(), base.p90Micros()));
+            }
+            if (base.allocatedBytesPerOp() >= 0 && result.allocatedBytesPerOp() >= 0
+                    && result.allocatedBytesPerOp() - base.allocatedBytesPerOp() > ALLOCATION_SLACK_BYTES
+                    && result.allocatedBytesPerOp() > base.allocatedBytesPerOp() * (1 + thresholds.maxAllocIncrease())) {
+                failures.add(String.format(Locale.ROOT, "%s allocation %d B/op > baseline %d B/op",
+                        result.key(), result.allocatedBytesPerOp(), base.allocatedBytesPerOp()));
+            }
+        }
+        byKey.keySet().forEach(key -> failures.add(key + " is in the baseline but was not run"));
+        return failures;
+    }
+
+    public static void write(Path file, List<Result> results) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(CSV_HEADER);
+        results.forEach(result -> lines.add(result.toCsv()));
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(file, lines);
+    }
+
+    public static List<Result> read(Path file) throws IOException {
+        return Files.readAllLines(file).stream()
+                .skip(1)
+                .filter(line -> !line.isBlank())
+                .map(Result::fromCsv)
+                .toList();
+    }
+
+    // Bytes allocated so far by all live threads, or -1 when the JVM does not track it
+    private long allocatedBytes() {
+        if (!(threads instanceof com.sun.management.ThreadMXBean counters)
+                || !counters.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        if (!counters.isThreadAllocatedMemoryEnabled()) {
+            counters.setThreadAllocatedMemoryEnabled(true);
+        }
+        return Arrays.stream(counters.getThreadAllocatedBytes(threads.getAllThreadIds()))
+                .filter(bytes -> bytes > 0)
+                .sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(millis -> millis > 0)
+                .sum();
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        // An argument may hold several whitespace-separated options, as the benchmark.args property does
+        for (String arg : Arrays.stream(args).flatMap(a -> Arrays.stream(a.trim().split("\\s+"))).toList()) {
+            if (arg.isEmpty()) {
+                continue;
+            }
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return options;
+    }
+
+    private static int[] parseInts(String list) {
+        return Arrays.stream(list.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+}
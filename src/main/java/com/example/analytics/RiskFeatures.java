@@ -0,0 +1,49 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Customer;
+
+// Primitive risk features of a batch of orders, one column per feature (struct of arrays).
+// Row i of every column belongs to the same order. Models read the columns directly, so scoring
+// a batch is a loop over primitive arrays with no boxing or per-order objects.
+public record RiskFeatures(
+    double[] totalValue,
+    int[] transactionCount,
+    double[] failureRatio,
+    int[] customerTier,
+    double[] recencyDays
+) {
+    // customerTier encoding
+    public static final int TIER_STANDARD = 0;
+    public static final int TIER_PREMIUM = 1;
+    public static final int TIER_VIP = 2;
+
+    // Recency used for orders without a date: old enough for any decaying model to ignore
+    public static final double UNKNOWN_RECENCY_DAYS = 36_500.0;
+
+    public RiskFeatures {
+        int rows = totalValue.length;
+        if (transactionCount.length != rows || failureRatio.length != rows
+                || customerTier.length != rows || recencyDays.length != rows) {
+            throw new IllegalArgumentException("All feature columns must have the same length");
+        }
+    }
+
+    public static RiskFeatures allocate(int rows) {
+        return new RiskFeatures(new double[rows], new int[rows], new double[rows], new int[rows], new double[rows]);
+    }
+
+    public int size() {
+        return totalValue.length;
+    }
+
+    public static int tierOf(Customer customer) {
+        if (customer == null) {
+            return TIER_STANDARD;
+        }
+        return switch (customer.tier()) {
+            case "VIP" -> TIER_VIP;
+            case "PREMIUM" -> TIER_PREMIUM;
+            default -> TIER_STANDARD;
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.analytics;
+
+// Pluggable risk model scoring an order from its primitive features.
+// Implementations must not allocate in score(): it runs once per order on the hot path.
+@FunctionalInterface
+public interface RiskModel {
+
+    double score(double totalValue, int transactionCount, double failureRatio, int customerTier, double recencyDays);
+
+    // Scores rows [from, to) into out[from, to).
+    // A straight indexed loop over the feature columns, which the JIT can unroll and vectorize;
+    // models with a cheaper batch formulation can override it.
+    default void scoreBatch(RiskFeatures features, int from, int to, double[] out) {
+        double[] totalValue = features.totalValue();
+        int[] transactionCount = features.transactionCount();
+        double[] failureRatio = features.failureRatio();
+        int[] customerTier = features.customerTier();
+        double[] recencyDays = features.recencyDays();
+        for (int i = from; i < to; i++) {
+            out[i] = score(totalValue[i], transactionCount[i], failureRatio[i], customerTier[i], recencyDays[i]);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Order;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+// Risk scoring over batches of orders.
+// FAST precision extracts primitive features once (reusing EnrichedOrder totals, which an OrderSnapshot
+// caches) and runs the RiskModel in double arithmetic over fixed-size chunks in parallel; nothing
+// is allocated per order until the result map is built.
+// EXACT precision falls back to the original BigDecimal computation used by calculateComplexRiskScore.
+public class RiskScoringEngine {
+
+    public enum Precision {
+        FAST,
+        EXACT
+    }
+
+    // Rows per parallel task: big enough to amortize task overhead, small enough to balance
+    private static final int CHUNK_SIZE = 4096;
+    private static final double SECONDS_PER_DAY = 86_400.0;
+
+    private final RiskModel model;
+    private final LocalDateTime asOf;
+
+    public RiskScoringEngine() {
+        this(LogisticRiskModel.DEFAULT);
+    }
+
+    public RiskScoringEngine(RiskModel model) {
+        this(model, LocalDateTime.now());
+    }
+
+    // asOf is the reference time recency is measured from
+    public RiskScoringEngine(RiskModel model, LocalDateTime asOf) {
+        this.model = Objects.requireNonNull(model, "model cannot be null");
+        this.asOf = Objects.requireNonNull(asOf, "asOf cannot be null");
+    }
+
+    public RiskModel model() {
+        return model;
+    }
+
+    // Scores per order id; duplicate ids keep the first score, like calculateComplexRiskScore
+    public Map<UUID, BigDecimal> scoreAll(List<Order> orders, Precision precision) {
+        EnrichedOrder[] rows = rows(orders);
+        Map<UUID, BigDecimal> scores = new LinkedHashMap<>(Math.max(16, rows.length * 4 / 3 + 1));
+        if (precision == Precision.EXACT) {
+            for (EnrichedOrder row : rows) {
+                scores.putIfAbsent(row.order().id(), exactScore(row.order(), row.order().transactions().size()));
+            }
+            return scores;
+        }
+        double[] values = score(features(rows));
+        for (int i = 0; i < rows.length; i++) {
+            scores.putIfAbsent(rows[i].order().id(), BigDecimal.valueOf(values[i]));
+        }
+        return scores;
+    }
+
+    // Scores in the order of the non-null orders of the input
+    public double[] score(List<Order> orders) {
+        return score(features(rows(orders)));
+    }
+
+    public double[] score(RiskFeatures features) {
+        double[] out = new double[features.size()];
+        scoreInto(features, out);
+        return out;
+    }
+
+    // Batch scoring into a caller-owned array, for callers that reuse their buffers
+    public void scoreInto(RiskFeatures features, double[] out) {
+        if (out.length < features.size()) {
+            throw new IllegalArgumentException("Output array too small: " + out.length + " < " + features.size());
+        }
+        forEachChunk(features.size(), (from, to) -> model.scoreBatch(features, from, to, out));
+    }
+
+    public RiskFeatures features(List<Order> orders) {
+        return features(rows(orders));
+    }
+
+    private RiskFeatures features(EnrichedOrder[] rows) {
+        RiskFeatures features = RiskFeatures.allocate(rows.length);
+        long asOfSecond = asOf.toEpochSecond(ZoneOffset.UTC);
+        double[] totalValue = features.totalValue();
+        int[] transactionCount = features.transactionCount();
+        double[] failureRatio = features.failureRatio();
+        int[] customerTier = features.customerTier();
+        double[] recencyDays = features.recencyDays();
+
+        forEachChunk(rows.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                EnrichedOrder row = rows[i];
+                int count = row.transactionCount();
+                totalValue[i] = row.totalValue().doubleValue();
+                transactionCount[i] = count;
+                failureRatio[i] = count == 0 ? 0.0 : (double) row.failedCount() / count;
+                customerTier[i] = RiskFeatures.tierOf(row.order().customer());
+                recencyDays[i] = row.order().orderDate() == null
+                        ? RiskFeatures.UNKNOWN_RECENCY_DAYS
+                        : (asOfSecond - row.order().orderDate().toEpochSecond(ZoneOffset.UTC)) / SECONDS_PER_DAY;
+            }
+        });
+        return features;
+    }
+
+    // The original BigDecimal computation, kept bit-for-bit for callers that need exact results.
+    // transactionCount must be the size of the transaction list, null entries included, as it always was.
+    static BigDecimal exactScore(Order order, int transactionCount) {
+        // Simulate CPU-intensive calculation
+        BigDecimal riskScore = BigDecimal.ZERO;
+        // Perform 1000 iterations of complex operations
+        for (int i = 0; i < 1000; i++) {
+            // Use various mathematical operations to simulate complexity
+            BigDecimal temp = BigDecimal.valueOf(Math.sin(order.id().getMostSignificantBits() + i));
+            temp = temp.multiply(BigDecimal.valueOf(Math.cos(order.id().getLeastSignificantBits() - i)));
+            temp = temp.pow(2);
+            riskScore = riskScore.add(temp.abs());
+        }
+        // Normalize the score
+        return riskScore.divide(BigDecimal.valueOf(Math.max(1, transactionCount)), MathContext.DECIMAL128);
+    }
+
+    private static EnrichedOrder[] rows(List<Order> orders) {
+        List<EnrichedOrder> source = orders instanceof OrderSnapshot snapshot
+                ? snapshot.enriched()
+                : orders.stream().filter(Objects::nonNull).map(EnrichedOrder::of).toList();
+        return source.stream().filter(Objects::nonNull).toArray(EnrichedOrder[]::new);
+    }
+
+    private static void forEachChunk(int rows, ChunkTask task) {
+        int chunks = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream range = IntStream.range(0, chunks);
+        (chunks > 1 ? range.parallel() : range)
+                .forEach(chunk -> task.run(chunk * CHUNK_SIZE, Math.min(rows, (chunk + 1) * CHUNK_SIZE)));
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask {
+        void run(int from, int to);
+    }
+}
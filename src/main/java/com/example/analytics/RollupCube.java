@@ -0,0 +1,228 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Customer;
+import com.example.analytics.records.Order;
+import com.example.analytics.records.Transaction;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// Pre-aggregated transaction values by category x order day x customer tier x transaction status,
+// optionally also by customer. Every cell holds the BigDecimalStatistics of the totalValue of its
+// transactions; cells merge, so new orders are folded in with add() and any coarser grain is a merge
+// of finer cells.
+// The two rollups the analytics queries need (per category, and per month and customer) are kept
+// up to date alongside the cells, so answering them does not touch the cells at all.
+// add() is not idempotent: adding the same order twice counts it twice.
+public class RollupCube {
+
+    private static final int FILE_MAGIC = 0x52435542; // "RCUB"
+    private static final int FILE_VERSION = 2;
+    // Epoch day of transactions whose order has no date, as in EnrichedOrder.epochDay()
+    public static final long UNDATED = Long.MIN_VALUE;
+
+    // Coordinates of one cell; category, tier and customer are null when the transaction has none
+    public record Key(String category, long epochDay, String tier, String status, Customer customer) {
+        public LocalDate day() {
+            return epochDay == UNDATED ? null : LocalDate.ofEpochDay(epochDay);
+        }
+    }
+
+    private final boolean customerGrain;
+    private final Map<Key, BigDecimalStatistics> cells = new ConcurrentHashMap<>();
+    private final Map<String, BigDecimalStatistics> byCategory = new ConcurrentHashMap<>();
+    private final Map<YearMonth, Map<Customer, BigDecimal>> spendByMonth = new ConcurrentHashMap<>();
+
+    public RollupCube(boolean customerGrain) {
+        this.customerGrain = customerGrain;
+    }
+
+    public static RollupCube of(Collection<Order> orders, boolean customerGrain) {
+        RollupCube cube = new RollupCube(customerGrain);
+        cube.add(orders);
+        return cube;
+    }
+
+    public boolean hasCustomerGrain() {
+        return customerGrain;
+    }
+
+    public int cellCount() {
+        return cells.size();
+    }
+
+    // Folds the transactions of the orders into the cube
+    public synchronized void add(Collection<Order> orders) {
+        Map<Key, BigDecimalStatistics> batch = orders.parallelStream()
+                .filter(Objects::nonNull)
+                .map(EnrichedOrder::of)
+                .flatMap(order -> order.order().transactions().stream()
+                        .filter(Objects::nonNull)
+                        .map(transaction -> Map.entry(key(order, transaction), transaction)))
+                .collect(Collectors.groupingBy(
+                    Map.Entry::getKey,
+                    BigDecimalCollectors.toBigDecimalStatistics(entry -> entry.getValue().totalValue())
+                ));
+        batch.forEach(this::merge);
+    }
+
+    // Statistics of every cell whose key matches, e.g. one category over a date range
+    public BigDecimalStatistics statistics(Predicate<Key> filter) {
+        return cells.entrySet().stream()
+                .filter(entry -> filter.test(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .reduce(BigDecimalStatistics.NEUTRAL, BigDecimalStatistics::merge);
+    }
+
+    // Same result as AnalyticsService.averageTransactionValuePerCategory over the added orders
+    public Map<String, Double> averageTransactionValuePerCategory() {
+        Map<String, Double> averages = new HashMap<>();
+        byCategory.forEach((category, stats) -> {
+            if (stats.count() > 50) {
+                averages.put(category, stats.sum().doubleValue() / stats.count());
+            }
+        });
+        return averages;
+    }
+
+    // Same result as AnalyticsService.topCustomersBySpendInMonth over the added orders;
+    // only available with the customer grain
+    public List<Customer> topCustomersBySpendInMonth(YearMonth yearMonth) {
+        if (!customerGrain) {
+            throw new IllegalStateException("Cube was built without the customer grain");
+        }
+        return spendByMonth.getOrDefault(yearMonth, Map.of()).entrySet().stream()
+                .sorted((e1, e2) -> e2.getValue().compareTo(e1.getValue()))
+                .limit(3)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    // File layout: the magic and version as 4-byte ints, then the body in the shared VarInts encodings
+    public synchronized void save(Path file) throws IOException {
+        VarInts.Writer out = new VarInts.Writer();
+        out.writeRaw(ByteBuffer.allocate(8).putInt(FILE_MAGIC).putInt(FILE_VERSION).array());
+        out.writeUnsigned(customerGrain ? 1 : 0);
+
+        // Customers are written once and referenced from the cells by index + 1 (0 for none)
+        Map<Customer, Integer> customerRefs = new HashMap<>();
+        List<Customer> customers = new ArrayList<>();
+        for (Key key : cells.keySet()) {
+            if (key.customer() != null && customerRefs.putIfAbsent(key.customer(), customers.size() + 1) == null) {
+                customers.add(key.customer());
+            }
+        }
+        out.writeUnsigned(customers.size());
+        for (Customer customer : customers) {
+            out.writeString(customer.id());
+            out.writeString(customer.name());
+            out.writeString(customer.email());
+            out.writeString(customer.tier());
+            out.writeUnsigned(customer.secondaryEmails().size());
+            for (String email : customer.secondaryEmails()) {
+                out.writeString(email);
+            }
+        }
+
+        out.writeUnsigned(cells.size());
+        for (Map.Entry<Key, BigDecimalStatistics> cell : cells.entrySet()) {
+            Key key = cell.getKey();
+            BigDecimalStatistics stats = cell.getValue();
+            out.writeString(key.category());
+            out.writeSigned(key.epochDay());
+            out.writeString(key.tier());
+            out.writeString(key.status());
+            out.writeUnsigned(key.customer() == null ? 0 : customerRefs.get(key.customer()));
+            out.writeUnsigned(stats.count());
+            out.writeDecimal(stats.sum());
+            out.writeDecimal(stats.min());
+            out.writeDecimal(stats.max());
+        }
+        Files.write(file, out.toByteArray());
+    }
+
+    public static RollupCube load(Path file) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (in.remaining() < 8 || in.getInt() != FILE_MAGIC) {
+            throw new IOException("Not a rollup cube file: " + file);
+        }
+        int version = in.getInt();
+        if (version != FILE_VERSION) {
+            throw new IOException("Unsupported rollup cube version " + version + " in " + file);
+        }
+        try {
+            RollupCube cube = new RollupCube(VarInts.readUnsigned(in) == 1);
+
+            Customer[] customers = new Customer[VarInts.readLength(in)];
+            for (int i = 0; i < customers.length; i++) {
+                String id = VarInts.readString(in);
+                String name = VarInts.readString(in);
+                String email = VarInts.readString(in);
+                String tier = VarInts.readString(in);
+                List<String> secondaryEmails = new ArrayList<>();
+                for (int e = VarInts.readLength(in); e > 0; e--) {
+                    secondaryEmails.add(VarInts.readString(in));
+                }
+                customers[i] = new Customer(id, name, email, tier, List.copyOf(secondaryEmails));
+            }
+
+            for (int c = VarInts.readLength(in); c > 0; c--) {
+                String category = VarInts.readString(in);
+                long epochDay = VarInts.readSigned(in);
+                String tier = VarInts.readString(in);
+                String status = VarInts.readString(in);
+                int customerRef = Math.toIntExact(VarInts.readUnsigned(in));
+                Key key = new Key(category, epochDay, tier, status, customerRef == 0 ? null : customers[customerRef - 1]);
+                long count = VarInts.readUnsigned(in);
+                BigDecimal sum = VarInts.readDecimal(in);
+                BigDecimal min = VarInts.readDecimal(in);
+                BigDecimal max = VarInts.readDecimal(in);
+                cube.merge(key, BigDecimalStatistics.of(count, sum, min, max));
+            }
+            if (in.hasRemaining()) {
+                throw new IOException("Trailing bytes in rollup cube file " + file);
+            }
+            return cube;
+        } catch (IllegalArgumentException | ArithmeticException | IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException("Corrupt rollup cube file " + file, e);
+        }
+    }
+
+    private Key key(EnrichedOrder order, Transaction transaction) {
+        Customer customer = order.order().customer();
+        String category = transaction.product() != null ? transaction.product().category() : null;
+        return new Key(
+            category,
+            order.epochDay(),
+            customer != null ? customer.tier() : null,
+            transaction.status(),
+            customerGrain ? customer : null
+        );
+    }
+
+    private void merge(Key key, BigDecimalStatistics stats) {
+        cells.merge(key, stats, BigDecimalStatistics::merge);
+        if (key.category() != null) {
+            byCategory.merge(key.category(), stats, BigDecimalStatistics::merge);
+        }
+        if (key.customer() != null && key.epochDay() != UNDATED) {
+            spendByMonth.computeIfAbsent(YearMonth.from(key.day()), month -> new ConcurrentHashMap<>())
+                    .merge(key.customer(), stats.sum(), BigDecimal::add);
+        }
+    }
+}
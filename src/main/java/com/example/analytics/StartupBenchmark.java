@@ -0,0 +1,109 @@
+package com.example.analytics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Startup cost of the `App --batch` job. Each configuration runs the job in fresh child JVMs and reports
+// the wall-clock time from launch to exit:
+//  - cold:        -Xshare:off, every JDK and application class loaded and verified from scratch
+//  - default CDS: the JDK's built-in archive of core classes (what a plain `java` launch gets)
+//  - AppCDS:      the dynamic archive produced by the cds profile, with the application classes and the
+//                 lambda proxy classes of the training run on top of the JDK archive
+// For contrast, the same batch is then repeated inside this already warmed-up JVM: the difference
+// between that and a child run is what class loading, bootstrap and JIT warm-up cost per launch.
+//
+// Usage: StartupBenchmark [jar] [archive] [runs]
+//   jar      application jar (default target/ecommerce-analytics-1.0-SNAPSHOT.jar); AppCDS only
+//            archives classes loaded from jars, and the archive must be used with the same class path
+//   archive  AppCDS archive (default target/analytics.jsa); the AppCDS row is skipped when it or the jar
+//            is missing
+//   runs     launches per configuration (default 10)
+public class StartupBenchmark {
+
+    private record Configuration(String name, List<String> options) {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path jar = Path.of(args.length > 0 ? args[0] : "target/ecommerce-analytics-1.0-SNAPSHOT.jar");
+        Path archive = Path.of(args.length > 1 ? args[1] : "target/analytics.jsa");
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        boolean hasJar = Files.exists(jar);
+        String classPath = hasJar ? jar.toString() : System.getProperty("java.class.path");
+        if (!hasJar) {
+            System.out.println("No jar at " + jar + ", using " + classPath + " (application classes cannot be archived)");
+        }
+
+        List<Configuration> configurations = new ArrayList<>();
+        configurations.add(new Configuration("cold (-Xshare:off)", List.of("-Xshare:off")));
+        configurations.add(new Configuration("default CDS", List.of()));
+        // The archive was dumped against the jar; with any other class path the JVM rejects its application
+        // classes and the row would only measure default CDS again
+        if (!hasJar) {
+            System.out.println("Skipping AppCDS: it needs the jar the archive was created with");
+        } else if (Files.exists(archive)) {
+            configurations.add(new Configuration("AppCDS", List.of("-XX:SharedArchiveFile=" + archive)));
+        } else {
+            System.out.println("No archive at " + archive + ": build it with mvn -Pcds package");
+        }
+
+        System.out.println("=== Startup: App --batch, " + runs + " launches per configuration ===");
+        for (Configuration configuration : configurations) {
+            // One unmeasured launch to warm the OS file cache
+            launch(configuration, classPath);
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = launch(configuration, classPath);
+            }
+            report(configuration.name(), millis);
+        }
+
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        for (int i = 0; i < 20; i++) {
+            App.runBatch(discard);
+        }
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            App.runBatch(discard);
+            millis[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        report("warmed, in-process", millis);
+    }
+
+    // Wall-clock milliseconds from launching a child JVM to its exit
+    private static long launch(Configuration configuration, String classPath) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("--enable-preview");
+        command.addAll(configuration.options());
+        command.add("-cp");
+        command.add(classPath);
+        command.add(App.class.getName());
+        command.add("--batch");
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        int exitCode = process.waitFor();
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        if (exitCode != 0) {
+            throw new IllegalStateException(configuration.name() + " run failed with exit code " + exitCode);
+        }
+        return elapsed;
+    }
+
+    private static void report(String name, long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-22s median %6d ms   min %6d ms   max %6d ms%n",
+                name, sorted[sorted.length / 2], sorted[0], sorted[sorted.length - 1]);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.analytics;
+
+import com.example.analytics.records.Order;
+import com.example.analytics.records.Transaction;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.Function;
+
+// An order with its total value and its first and last non-null transaction (in list order),
+// as returned by highestValueOrder and topValueOrders
+public record ValuedOrder(
+    Order order,
+    BigDecimal totalValue,
+    Transaction firstTransaction,
+    Transaction lastTransaction
+) {
+    // The order of topValueOrders: highest total value first, equal values (by compareTo) go to the lower
+    // order id. Only two entries for the same order rank equal, so sequential and parallel runs agree.
+    public static final Comparator<ValuedOrder> RANKING = ranking(ValuedOrder::totalValue, ValuedOrder::order);
+
+    // RANKING for anything that carries an order and its total, e.g. EnrichedOrder before it is converted
+    static <T> Comparator<T> ranking(Function<? super T, BigDecimal> totalValue, Function<? super T, Order> order) {
+        return Comparator.<T, BigDecimal>comparing(totalValue, Comparator.reverseOrder())
+                .thenComparing(value -> order.apply(value).id());
+    }
+
+    static ValuedOrder of(EnrichedOrder order) {
+        return new ValuedOrder(order.order(), order.totalValue(), order.firstTransaction(), order.lastTransaction());
+    }
+
+    // The untyped form returned by firstAndLastTransactionOfHighestValueOrder
+    public Map<String, Object> toMap() {
+        return Map.of(
+            "orderId", order.id().toString(),
+            "totalOrderValue", totalValue,
+            "firstTransaction", firstTransaction,
+            "lastTransaction", lastTransaction
+        );
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.analytics;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Variable-length integer encoding: 7 bits per byte, high bit set on all but the last byte.
+// Signed values go through zigzag encoding first so small negative numbers stay short.
+// The binary formats (ColdPartition, RollupCube files, AnalyticsCodec) share these encodings:
+//  - byte arrays as a varint length followed by the bytes
+//  - nullable strings as UTF-8 bytes with a varint length + 1; 0 is null
+//  - nullable BigDecimals as a varint header + 1 (0 is null), the header being zigzag(scale) with the
+//    low bit flagging an unscaled value too large for a long; then the unscaled value as a zigzag
+//    varint, or as its BigInteger bytes when it does not fit
+// Readers reject varints longer than MAX_VARINT_BYTES and lengths beyond the bytes left to read.
+final class VarInts {
+
+    // A 64-bit value needs at most ceil(64 / 7) bytes
+    static final int MAX_VARINT_BYTES = 10;
+
+    private VarInts() {
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long encoded) {
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    // Reads a value written by Writer.writeUnsigned at the buffer's position, advancing it
+    static long readUnsigned(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 7 * MAX_VARINT_BYTES; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint longer than " + MAX_VARINT_BYTES + " bytes");
+    }
+
+    static long readSigned(ByteBuffer buffer) {
+        return unZigZag(readUnsigned(buffer));
+    }
+
+    // Reads a value written by Writer.writeFixedLong, whatever the byte order of the buffer
+    static long readFixedLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (buffer.get() & 0xFF);
+        }
+        return value;
+    }
+
+    // A count or length that can be at most the number of bytes left, since every element takes one
+    static int readLength(ByteBuffer buffer) {
+        return checkLength(readUnsigned(buffer), buffer);
+    }
+
+    static byte[] readBytes(ByteBuffer buffer) {
+        byte[] value = new byte[readLength(buffer)];
+        buffer.get(value);
+        return value;
+    }
+
+    static String readString(ByteBuffer buffer) {
+        long encoded = readUnsigned(buffer);
+        if (encoded == 0) {
+            return null;
+        }
+        int length = checkLength(encoded - 1, buffer);
+        int position = buffer.position();
+        String value = buffer.hasArray()
+                ? new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8)
+                : StandardCharsets.UTF_8.decode(buffer.slice(position, length)).toString();
+        buffer.position(position + length);
+        return value;
+    }
+
+    static BigDecimal readDecimal(ByteBuffer buffer) {
+        long header = readUnsigned(buffer);
+        if (header == 0) {
+            return null;
+        }
+        header--;
+        int scale = Math.toIntExact(unZigZag(header >>> 1));
+        return (header & 1) == 1
+                ? new BigDecimal(new BigInteger(readBytes(buffer)), scale)
+                : BigDecimal.valueOf(readSigned(buffer), scale);
+    }
+
+    private static int checkLength(long length, ByteBuffer buffer) {
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Length " + length + " exceeds the remaining " + buffer.remaining() + " bytes");
+        }
+        return (int) length;
+    }
+
+    // Growable byte array written front to back
+    static final class Writer {
+        private byte[] bytes = new byte[64];
+        private int length;
+
+        void writeUnsigned(long value) {
+            ensureCapacity(MAX_VARINT_BYTES);
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void writeSigned(long value) {
+            writeUnsigned(zigZag(value));
+        }
+
+        // Eight bytes, big-endian
+        void writeFixedLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeBytes(byte[] value) {
+            writeUnsigned(value.length);
+            writeRaw(value);
+        }
+
+        // Bytes without a length prefix
+        void writeRaw(byte[] value) {
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, bytes, length, value.length);
+            length += value.length;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeUnsigned(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsigned(utf8.length + 1L);
+            writeRaw(utf8);
+        }
+
+        void writeDecimal(BigDecimal value) {
+            if (value == null) {
+                writeUnsigned(0);
+                return;
+            }
+            BigInteger unscaled = value.unscaledValue();
+            boolean large = unscaled.bitLength() > 63;
+            writeUnsigned((zigZag(value.scale()) << 1 | (large ? 1 : 0)) + 1);
+            if (large) {
+                writeBytes(unscaled.toByteArray());
+            } else {
+                writeSigned(unscaled.longValueExact());
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+
+    // Sequential reader over a byte array produced by Writer
+    static final class Reader {
+        private final ByteBuffer buffer;
+
+        Reader(byte[] bytes) {
+            this.buffer = ByteBuffer.wrap(bytes);
+        }
+
+        long readUnsigned() {
+            return VarInts.readUnsigned(buffer);
+        }
+
+        long readSigned() {
+            return VarInts.readSigned(buffer);
+        }
+
+        int readInt() {
+            return Math.toIntExact(readUnsigned());
+        }
+
+        BigDecimal readDecimal() {
+            return VarInts.readDecimal(buffer);
+        }
+    }
+}